@@ -0,0 +1,145 @@
+package com.onlinerautomation.binder;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.internal.Coordinates;
+import org.openqa.selenium.interactions.internal.Locatable;
+import org.openqa.selenium.internal.WrapsElement;
+
+import java.util.List;
+
+/**
+ * Element which is located on every call like PageFactory proxy, without reflective proxy and annotation parsing
+ */
+public class LocatingElement implements WebElement, WrapsElement, Locatable {
+    private final SearchContext searchContext;
+    private final By by;
+    private final boolean cacheLookup;
+    private WebElement cached;
+
+    public LocatingElement(SearchContext searchContext, By by) {
+        this(searchContext, by, false);
+    }
+
+    /**
+     * @param cacheLookup locate element once and reuse it, the same as <code>@CacheLookup</code>
+     */
+    public LocatingElement(SearchContext searchContext, By by, boolean cacheLookup) {
+        this.searchContext = searchContext;
+        this.by = by;
+        this.cacheLookup = cacheLookup;
+    }
+
+    @Override
+    public WebElement getWrappedElement() {
+        if (cached != null) {
+            return cached;
+        }
+        WebElement element = searchContext.findElement(by);
+        if (cacheLookup) {
+            cached = element;
+        }
+        return element;
+    }
+
+    @Override
+    public void click() {
+        getWrappedElement().click();
+    }
+
+    @Override
+    public void submit() {
+        getWrappedElement().submit();
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        getWrappedElement().sendKeys(keysToSend);
+    }
+
+    @Override
+    public void clear() {
+        getWrappedElement().clear();
+    }
+
+    @Override
+    public String getTagName() {
+        return getWrappedElement().getTagName();
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        return getWrappedElement().getAttribute(name);
+    }
+
+    @Override
+    public boolean isSelected() {
+        return getWrappedElement().isSelected();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return getWrappedElement().isEnabled();
+    }
+
+    @Override
+    public String getText() {
+        return getWrappedElement().getText();
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return getWrappedElement().findElements(by);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return getWrappedElement().findElement(by);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return getWrappedElement().isDisplayed();
+    }
+
+    @Override
+    public Point getLocation() {
+        return getWrappedElement().getLocation();
+    }
+
+    @Override
+    public Dimension getSize() {
+        return getWrappedElement().getSize();
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return getWrappedElement().getRect();
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return getWrappedElement().getCssValue(propertyName);
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) throws WebDriverException {
+        return getWrappedElement().getScreenshotAs(target);
+    }
+
+    @Override
+    public Coordinates getCoordinates() {
+        return ((Locatable) getWrappedElement()).getCoordinates();
+    }
+
+    @Override
+    public String toString() {
+        return "Located element for: " + by;
+    }
+}
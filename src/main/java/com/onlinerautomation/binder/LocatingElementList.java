@@ -0,0 +1,107 @@
+package com.onlinerautomation.binder;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Element list which is located on every access like PageFactory list proxy. Iteration and streams work on one
+ * located snapshot, so walking the list costs a single find.
+ */
+public class LocatingElementList extends AbstractList<WebElement> {
+    private final SearchContext searchContext;
+    private final By by;
+    private final boolean cacheLookup;
+    private List<WebElement> cached;
+
+    public LocatingElementList(SearchContext searchContext, By by) {
+        this(searchContext, by, false);
+    }
+
+    /**
+     * @param cacheLookup locate elements once and reuse them, the same as <code>@CacheLookup</code>
+     */
+    public LocatingElementList(SearchContext searchContext, By by, boolean cacheLookup) {
+        this.searchContext = searchContext;
+        this.by = by;
+        this.cacheLookup = cacheLookup;
+    }
+
+    private List<WebElement> locate() {
+        if (cached != null) {
+            return cached;
+        }
+        List<WebElement> elements = searchContext.findElements(by);
+        if (cacheLookup) {
+            cached = elements;
+        }
+        return elements;
+    }
+
+    @Override
+    public WebElement get(int index) {
+        return locate().get(index);
+    }
+
+    @Override
+    public int size() {
+        return locate().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return locate().isEmpty();
+    }
+
+    @Override
+    public Iterator<WebElement> iterator() {
+        return locate().iterator();
+    }
+
+    @Override
+    public ListIterator<WebElement> listIterator(int index) {
+        return locate().listIterator(index);
+    }
+
+    @Override
+    public Spliterator<WebElement> spliterator() {
+        return locate().spliterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super WebElement> action) {
+        locate().forEach(action);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return locate().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return locate().toArray(a);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "Located elements for: " + by;
+    }
+}
@@ -0,0 +1,13 @@
+package com.onlinerautomation.binder;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Sets located elements to the <code>@FindBy</code> fields of one page class. Implementations are generated by
+ * {@link com.onlinerautomation.binder.processor.PageBinderProcessor} as <code>&lt;PageClass&gt;_PageBinder</code>.
+ *
+ * @param <T> page class
+ */
+public interface PageBinder<T> {
+    void bind(T page, WebDriver driver);
+}
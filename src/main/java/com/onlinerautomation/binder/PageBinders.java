@@ -0,0 +1,116 @@
+package com.onlinerautomation.binder;
+
+import com.onlinerautomation.utils.SuiteConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.PageFactory;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Initializes page elements with binders generated at build time, see {@link PageBinder}.
+ * <p>
+ * Binders of a page class and its superclasses are looked up once per class. When a class which needs element
+ * initialization has no binder, e.g. its fields are private or it was compiled without the processor, the whole page
+ * is initialized by {@link PageFactory#initElements(WebDriver, Object)} instead.
+ * <p>
+ * Default mode is chosen by <code>page.binding</code> of {@link SuiteConfiguration}: generated (default) or reflective.
+ */
+@Slf4j
+public final class PageBinders {
+    static final String BINDER_SUFFIX = "_PageBinder";
+
+    public enum Mode {
+        GENERATED,
+        REFLECTIVE;
+
+        public static Mode byName(String name) {
+            switch (name.trim().toLowerCase()) {
+                case "generated":
+                    return GENERATED;
+                case "reflective":
+                    return REFLECTIVE;
+                default:
+                    throw new IllegalArgumentException("Unknown page binding [" + name + "], expected generated or reflective");
+            }
+        }
+    }
+
+    private static final ClassValue<List<PageBinder<Object>>> BINDERS = new ClassValue<List<PageBinder<Object>>>() {
+        @Override
+        protected List<PageBinder<Object>> computeValue(Class<?> pageClass) {
+            return findBinders(pageClass);
+        }
+    };
+
+    private static volatile Mode defaultMode = Mode.byName(SuiteConfiguration.get().getString("page.binding"));
+
+    private PageBinders() {
+    }
+
+    public static void setDefaultMode(Mode mode) {
+        defaultMode = mode;
+    }
+
+    public static Mode getDefaultMode() {
+        return defaultMode;
+    }
+
+    public static void bind(WebDriver driver, Object page) {
+        bind(driver, page, defaultMode);
+    }
+
+    public static void bind(WebDriver driver, Object page, Mode mode) {
+        List<PageBinder<Object>> binders = mode == Mode.GENERATED ? BINDERS.get(page.getClass()) : null;
+        if (binders == null) {
+            PageFactory.initElements(driver, page);
+            return;
+        }
+        for (PageBinder<Object> binder : binders) {
+            binder.bind(page, driver);
+        }
+    }
+
+    /**
+     * @return binders from the top superclass down, or null if some class needs PageFactory
+     */
+    @SuppressWarnings("unchecked")
+    private static List<PageBinder<Object>> findBinders(Class<?> pageClass) {
+        List<PageBinder<Object>> binders = new ArrayList<>();
+        for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            try {
+                Class<?> binderClass = Class.forName(type.getName() + BINDER_SUFFIX, true, type.getClassLoader());
+                binders.add(0, (PageBinder<Object>) binderClass.getDeclaredConstructor().newInstance());
+            } catch (ClassNotFoundException e) {
+                if (needsInitialization(type)) {
+                    log.info("No generated binder for " + type.getName() + ", " + pageClass.getSimpleName()
+                            + " is initialized by PageFactory");
+                    return null;
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not create binder of " + type.getName(), e);
+            }
+        }
+        return Collections.unmodifiableList(binders);
+    }
+
+    /**
+     * The same fields PageFactory decorates: annotated ones and plain WebElement ones
+     */
+    private static boolean needsInitialization(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(FindBy.class) || field.isAnnotationPresent(FindBys.class)
+                    || field.isAnnotationPresent(FindAll.class) || field.getType() == WebElement.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
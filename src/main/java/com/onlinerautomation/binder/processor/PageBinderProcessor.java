@@ -0,0 +1,184 @@
+package com.onlinerautomation.binder.processor;
+
+import org.openqa.selenium.support.CacheLookup;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.How;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Generates a {@link com.onlinerautomation.binder.PageBinder} for every class with <code>@FindBy</code> fields.
+ * <p>
+ * Binder sets the same fields PageFactory decorates: <code>@FindBy</code> annotated <code>WebElement</code> and
+ * <code>List&lt;WebElement&gt;</code> fields and plain <code>WebElement</code> fields, located by id or name.
+ * Fields have to be accessible from the package, classes with private fields, <code>@FindBys</code>,
+ * <code>@FindAll</code> or other field types get a warning and no binder, so they stay on PageFactory.
+ * <p>
+ * The processor is compiled by a separate compiler execution before the rest of the sources, see pom.xml.
+ */
+@SupportedAnnotationTypes("org.openqa.selenium.support.FindBy")
+public class PageBinderProcessor extends AbstractProcessor {
+    private static final String BINDER_SUFFIX = "_PageBinder";
+    private static final String WEB_ELEMENT = "org.openqa.selenium.WebElement";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> pages = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(FindBy.class)) {
+            if (element.getKind() == ElementKind.FIELD) {
+                pages.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+        for (TypeElement page : pages) {
+            String source = generate(page);
+            if (source != null) {
+                write(page, source);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return binder source or null if the page has to stay on PageFactory
+     */
+    private String generate(TypeElement page) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(page);
+        String binaryName = processingEnv.getElementUtils().getBinaryName(page).toString();
+        String pageName = page.getQualifiedName().toString();
+        String binderName = binaryName.substring(binaryName.lastIndexOf('.') + 1) + BINDER_SUFFIX;
+        if (page.getModifiers().contains(Modifier.PRIVATE) || !page.getTypeParameters().isEmpty()) {
+            return skip(page, "private or generic class");
+        }
+
+        StringBuilder body = new StringBuilder();
+        for (VariableElement field : ElementFilter.fieldsIn(page.getEnclosedElements())) {
+            FindBy findBy = field.getAnnotation(FindBy.class);
+            boolean element = isWebElement(field.asType());
+            boolean list = isWebElementList(field.asType());
+            if (field.getAnnotation(FindBys.class) != null || field.getAnnotation(FindAll.class) != null) {
+                return skip(field, "@FindBys and @FindAll are not supported");
+            }
+            if (findBy == null && !element) {
+                continue;
+            }
+            if (!element && !list) {
+                return skip(field, "only WebElement and List<WebElement> fields are supported");
+            }
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)
+                    || modifiers.contains(Modifier.STATIC)) {
+                return skip(field, "field has to be non-private, non-final and non-static");
+            }
+            String by = findBy == null
+                    ? "new org.openqa.selenium.support.pagefactory.ByIdOrName(" + literal(field.getSimpleName().toString()) + ")"
+                    : by(findBy, field);
+            if (by == null) {
+                return null;
+            }
+            body.append("        page.").append(field.getSimpleName()).append(" = new com.onlinerautomation.binder.")
+                    .append(list ? "LocatingElementList" : "LocatingElement")
+                    .append("(driver, ").append(by)
+                    .append(field.getAnnotation(CacheLookup.class) != null ? ", true" : "")
+                    .append(");\n");
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (!packageElement.isUnnamed()) {
+            source.append("package ").append(packageElement.getQualifiedName()).append(";\n\n");
+        }
+        source.append("/**\n")
+                .append(" * Generated by ").append(PageBinderProcessor.class.getSimpleName()).append(" from ")
+                .append(page.getSimpleName()).append(", do not edit\n")
+                .append(" */\n")
+                .append("public final class ").append(binderName)
+                .append(" implements com.onlinerautomation.binder.PageBinder<").append(pageName).append("> {\n")
+                .append("    @Override\n")
+                .append("    public void bind(").append(pageName).append(" page, org.openqa.selenium.WebDriver driver) {\n")
+                .append(body)
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * The same precedence as PageFactory: short attributes first, then how and using
+     */
+    private String by(FindBy findBy, VariableElement field) {
+        if (!findBy.className().isEmpty()) {
+            return "org.openqa.selenium.By.className(" + literal(findBy.className()) + ")";
+        } else if (!findBy.css().isEmpty()) {
+            return "org.openqa.selenium.By.cssSelector(" + literal(findBy.css()) + ")";
+        } else if (!findBy.id().isEmpty()) {
+            return "org.openqa.selenium.By.id(" + literal(findBy.id()) + ")";
+        } else if (!findBy.linkText().isEmpty()) {
+            return "org.openqa.selenium.By.linkText(" + literal(findBy.linkText()) + ")";
+        } else if (!findBy.name().isEmpty()) {
+            return "org.openqa.selenium.By.name(" + literal(findBy.name()) + ")";
+        } else if (!findBy.partialLinkText().isEmpty()) {
+            return "org.openqa.selenium.By.partialLinkText(" + literal(findBy.partialLinkText()) + ")";
+        } else if (!findBy.tagName().isEmpty()) {
+            return "org.openqa.selenium.By.tagName(" + literal(findBy.tagName()) + ")";
+        } else if (!findBy.xpath().isEmpty()) {
+            return "org.openqa.selenium.By.xpath(" + literal(findBy.xpath()) + ")";
+        } else if (findBy.how() != How.UNSET && !findBy.using().isEmpty()) {
+            return "org.openqa.selenium.support.How." + findBy.how().name() + ".buildBy(" + literal(findBy.using()) + ")";
+        }
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@FindBy has no locator", field);
+        return null;
+    }
+
+    private boolean isWebElement(TypeMirror type) {
+        return processingEnv.getTypeUtils().isSameType(type, webElement());
+    }
+
+    private boolean isWebElementList(TypeMirror type) {
+        TypeElement list = processingEnv.getElementUtils().getTypeElement("java.util.List");
+        return processingEnv.getTypeUtils().isSameType(type, processingEnv.getTypeUtils().getDeclaredType(list, webElement()));
+    }
+
+    private TypeMirror webElement() {
+        return processingEnv.getElementUtils().getTypeElement(WEB_ELEMENT).asType();
+    }
+
+    private String literal(String value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    private String skip(Element element, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "No page binder generated, PageFactory is used instead: " + reason, element);
+        return null;
+    }
+
+    private void write(TypeElement page, String source) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(page).toString();
+        try (Writer writer = processingEnv.getFiler().createSourceFile(binaryName + BINDER_SUFFIX, page).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write page binder: " + e, page);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.onlinerautomation.crawler;
+
+import com.google.common.io.CountingOutputStream;
+import com.google.gson.Gson;
+import com.onlinerautomation.data.CarPreview;
+import com.onlinerautomation.page.AutoMarketPage;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Pages through the {@link AutoMarketPage} listing with filters already applied and streams every row as a
+ * {@link CarPreview} JSON line.
+ * <p>
+ * Rows of a listing page are read with one script, the page thread hands them to a single writer thread through a
+ * bounded queue and blocks when the writer falls behind, so memory stays at one listing page plus the queue.
+ * After the last row of a page is written and synced the writer saves a checkpoint: filters, page, rows and output
+ * length. A crawl of the same filters opens the page after the checkpointed one directly and resumes there, the output
+ * is cut back to the checkpointed length first, so rows of a page interrupted halfway are not written twice. A finished
+ * crawl starts over.
+ */
+@Slf4j
+public class ListingCrawler {
+    private static final Gson GSON = new Gson();
+
+    private final Path output;
+    private final Path checkpointFile;
+    private final int queueSize;
+    private final int maxPages;
+
+    /**
+     * @param queueSize rows waiting to be written
+     * @param maxPages  pages crawled by one run, 0 for no limit
+     */
+    public ListingCrawler(Path output, Path checkpointFile, int queueSize, int maxPages) {
+        this.output = output;
+        this.checkpointFile = checkpointFile;
+        this.queueSize = queueSize;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * @param listing page showing the first listing page of the filters
+     * @param filters description of the applied filters, a checkpoint of other filters is not resumed
+     */
+    public Result crawl(AutoMarketPage listing, String filters) throws IOException, InterruptedException {
+        Checkpoint checkpoint = resume(filters);
+        if (checkpoint.page > 0) {
+            listing.openListingPage(checkpoint.page + 1);
+        }
+        if (listing.getListingPageNumber() <= checkpoint.page) {
+            // the listing got shorter since the checkpoint
+            save(checkpoint.completed());
+            return new Result(checkpoint.page, 0, checkpoint.rows, 0, true);
+        }
+
+        BlockingQueue<Item> queue = new ArrayBlockingQueue<>(queueSize);
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "crawl-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Writing writing = new Writing(queue, checkpoint);
+        Future<?> writer = executor.submit(writing);
+        long start = System.nanoTime();
+        int pages = 0;
+        int rows = 0;
+        try {
+            while (true) {
+                int page = listing.getListingPageNumber();
+                List<CarPreview> previews = listing.getAnnouncementPreviews();
+                for (CarPreview preview : previews) {
+                    put(queue, new Item(preview, 0), writer);
+                }
+                put(queue, new Item(null, page), writer);
+                pages++;
+                rows += previews.size();
+                log.info("Page " + page + ": " + previews.size() + " rows, " + rate(rows, start) + " rows/s");
+                if (!listing.hasNextListingPage() || (maxPages > 0 && pages >= maxPages)) {
+                    break;
+                }
+                listing.openNextListingPage();
+            }
+            put(queue, Item.END, writer);
+            writer.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException("Crawl writer failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        Checkpoint last = writing.checkpoint;
+        boolean complete = !listing.hasNextListingPage();
+        if (complete) {
+            save(last.completed());
+        }
+        Result result = new Result(last.page, pages, last.rows, rate(rows, start), complete);
+        log.info("Crawl of [" + filters + "]: " + result);
+        return result;
+    }
+
+    /**
+     * @return checkpoint of the unfinished crawl of the filters or a new one, with the output cut back to its length
+     */
+    Checkpoint resume(String filters) throws IOException {
+        Checkpoint checkpoint = Checkpoint.load(checkpointFile);
+        if (checkpoint == null || checkpoint.complete || !checkpoint.filters.equals(filters)) {
+            checkpoint = new Checkpoint(filters, 0, 0, 0, false);
+        } else {
+            log.info("Resume crawl of [" + filters + "] after page " + checkpoint.page + ", " + checkpoint.rows
+                    + " rows written");
+        }
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(checkpoint.bytes);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Wait for a free queue slot, failing if the writer stopped
+     */
+    private static void put(BlockingQueue<Item> queue, Item item, Future<?> writer)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) {
+                writer.get();
+                throw new IllegalStateException("Crawl writer stopped");
+            }
+        }
+    }
+
+    private static double rate(int rows, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds > 0 ? Math.round(rows / seconds * 10) / 10.0 : 0;
+    }
+
+    void save(Checkpoint checkpoint) throws IOException {
+        if (checkpointFile.getParent() != null) {
+            Files.createDirectories(checkpointFile.getParent());
+        }
+        Path temporary = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, UTF_8)) {
+            checkpoint.toProperties().store(writer, "Listing crawl checkpoint");
+        }
+        Files.move(temporary, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private class Writing implements Runnable {
+        private final BlockingQueue<Item> queue;
+        private volatile Checkpoint checkpoint;
+
+        Writing(BlockingQueue<Item> queue, Checkpoint checkpoint) {
+            this.queue = queue;
+            this.checkpoint = checkpoint;
+        }
+
+        @Override
+        public void run() {
+            Checkpoint resumed = checkpoint;
+            try (FileOutputStream file = new FileOutputStream(output.toFile(), true);
+                 CountingOutputStream counting = new CountingOutputStream(file);
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(counting, UTF_8))) {
+                long rows = 0;
+                for (Item item = queue.take(); item != Item.END; item = queue.take()) {
+                    if (item.preview != null) {
+                        writer.write(GSON.toJson(item.preview));
+                        writer.write('\n');
+                        rows++;
+                    } else {
+                        writer.flush();
+                        file.getFD().sync();
+                        Checkpoint next = new Checkpoint(resumed.filters, item.pageEnd, resumed.rows + rows,
+                                resumed.bytes + counting.getCount(), false);
+                        save(next);
+                        checkpoint = next;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write crawl to " + output, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Row to write or, without preview, end of the listing page
+     */
+    private static class Item {
+        static final Item END = new Item(null, -1);
+
+        final CarPreview preview;
+        final int pageEnd;
+
+        Item(CarPreview preview, int pageEnd) {
+            this.preview = preview;
+            this.pageEnd = pageEnd;
+        }
+    }
+
+    static class Checkpoint {
+        final String filters;
+        final int page;
+        final long rows;
+        final long bytes;
+        final boolean complete;
+
+        Checkpoint(String filters, int page, long rows, long bytes, boolean complete) {
+            this.filters = filters;
+            this.page = page;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.complete = complete;
+        }
+
+        Checkpoint completed() {
+            return new Checkpoint(filters, page, rows, bytes, true);
+        }
+
+        static Checkpoint load(Path file) throws IOException {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, UTF_8)) {
+                properties.load(reader);
+            }
+            return new Checkpoint(properties.getProperty("filters", ""),
+                    Integer.parseInt(properties.getProperty("page", "0")),
+                    Long.parseLong(properties.getProperty("rows", "0")),
+                    Long.parseLong(properties.getProperty("bytes", "0")),
+                    Boolean.parseBoolean(properties.getProperty("complete", "false")));
+        }
+
+        Properties toProperties() {
+            Properties properties = new Properties();
+            properties.setProperty("filters", filters);
+            properties.setProperty("page", String.valueOf(page));
+            properties.setProperty("rows", String.valueOf(rows));
+            properties.setProperty("bytes", String.valueOf(bytes));
+            properties.setProperty("complete", String.valueOf(complete));
+            return properties;
+        }
+    }
+
+    /**
+     * Outcome of one crawl run, rows and last page count the resumed runs too
+     */
+    @Value
+    public static class Result {
+        int lastPage;
+        int pages;
+        long rows;
+        double rowsPerSecond;
+        boolean complete;
+
+        @Override
+        public String toString() {
+            return pages + " pages crawled, " + rows + " rows written up to page " + lastPage + ", " + rowsPerSecond
+                    + " rows/s" + (complete ? ", complete" : ", to be resumed");
+        }
+    }
+}
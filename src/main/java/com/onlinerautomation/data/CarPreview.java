@@ -0,0 +1,28 @@
+package com.onlinerautomation.data;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Car announcement as it is shown in AutoMarketPage listing row
+ */
+@Value
+@Builder
+public class CarPreview {
+    String title;
+    String year;
+    String mileage;
+    String description;
+    String price;
+    String url;
+
+    /**
+     * @return title, year, mileage and description - fields which are repeated on announcement page
+     */
+    public List<String> getCarInfo() {
+        return Arrays.asList(title, year, mileage, description);
+    }
+}
@@ -1,11 +1,17 @@
 package com.onlinerautomation.data;
 
+import com.onlinerautomation.utils.ShardPlan;
 import org.testng.annotations.DataProvider;
 
+import java.lang.reflect.Method;
+
+/**
+ * Rows are filtered by {@link ShardPlan}, so a sharded suite runs every row in one JVM only
+ */
 public class DataForFilers {
-    @DataProvider(name = "Filter by car body types")
-    public static Object[] getCarBodyTypes() {
-        return new Object[][]{
+    @DataProvider(name = "Filter by car body types", parallel = true)
+    public static Object[] getCarBodyTypes(Method method) {
+        return ShardPlan.current().filterRows(method, new Object[][]{
                 {"Седан"},
                 {"Универсал"},
                 {"Хетчбэк"},
@@ -16,33 +22,33 @@ public class DataForFilers {
                 {"Микроавтобус"},
                 {"Пикап"},
                 {"Фургон"}
-        };
+        });
     }
 
-    @DataProvider(name = "Filter by engine's type")
-    public static Object[] getEnginesType() {
-        return new Object[][]{
+    @DataProvider(name = "Filter by engine's type", parallel = true)
+    public static Object[] getEnginesType(Method method) {
+        return ShardPlan.current().filterRows(method, new Object[][]{
                 {"Бензин"},
                 {"Дизель"},
                 {"Газ (бензин))"},
                 {"Гибрид (бензин)"},
                 {"Электромобиль"}
-        };
+        });
     }
 
-    @DataProvider(name = "Filter by transmission type")
-    public static Object[] getTransmissionType() {
-        return new Object[][]{
+    @DataProvider(name = "Filter by transmission type", parallel = true)
+    public static Object[] getTransmissionType(Method method) {
+        return ShardPlan.current().filterRows(method, new Object[][]{
                 {"Автоматическая"},
                 {"Механическая"}
-        };
+        });
     }
 
-    @DataProvider(name = "Filter by price")
-    public static Object[] getCarPtices() {
-        return new Object[][]{
+    @DataProvider(name = "Filter by price", parallel = true)
+    public static Object[] getCarPtices(Method method) {
+        return ShardPlan.current().filterRows(method, new Object[][]{
                 {"1000", "1000"},
                 {"2000", "2000"}
-        };
+        });
     }
 }
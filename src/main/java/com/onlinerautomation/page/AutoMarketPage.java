@@ -1,66 +1,93 @@
 package com.onlinerautomation.page;
 
+import com.onlinerautomation.data.CarPreview;
 import com.onlinerautomation.utils.ElementsUtil;
+import com.onlinerautomation.utils.Scripts;
+import com.onlinerautomation.verification.PreviewVerifier;
 import com.sun.javafx.binding.StringFormatter;
 import io.qameta.allure.Step;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.testng.Assert;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.onlinerautomation.utils.ElementsUtil.waitForVisible;
 
 @Slf4j
 public class AutoMarketPage extends Page {
 
-    private LeftMenu leftMenu = new LeftMenu(driver);
+    private static final String ANNOUNCEMENT_ROWS_SCRIPT = Scripts.load("/js/announcement-rows.js");
+    private static final String ANNOUNCEMENT_ROW = "tbody [id*='car']";
+    private static final String ANNOUNCEMENT_TITLE = "span [href*='/car/']";
+    private static final String ANNOUNCEMENT_YEAR = ".year";
+    private static final String ANNOUNCEMENT_MILEAGE = ".dist strong";
+    private static final String ANNOUNCEMENT_DESCRIPTION = ".txt p";
+    private static final String ANNOUNCEMENT_PRICE = ".small";
+    // listing keeps filters and page in the hash, only the page parameter is replaced
+    private static final String OPEN_LISTING_PAGE_SCRIPT = "var hash = location.hash.replace(/^#/, '').split('&')"
+            + ".filter(function (p) { return p && p.indexOf('page=') !== 0; });"
+            + "hash.push('page=' + arguments[0]); location.hash = hash.join('&');";
+
+    private LeftMenu leftMenu;
 
     @FindBy(css = ".js-search-title")
-    private WebElement autoMarketTitle;
+    WebElement autoMarketTitle;
 
     @FindBy(css = "b-update-btn-1")
-    private WebElement refreshButton;
+    WebElement refreshButton;
 
     @FindBy(css = "tbody [id*='car']")
-    private List<WebElement> announcementList;
+    List<WebElement> announcementList;
 
     @FindBy(css = ".dist")
-    private WebElement distance;
+    WebElement distance;
 
     @FindBy(css = ".year")
-    private WebElement year;
+    WebElement year;
 
     @FindBy(css = "span [href*='/car/']")
-    private WebElement announcementTitle;
+    WebElement announcementTitle;
 
     @FindBy(css = "li .add-bookmark")
-    private WebElement addBookmark;
+    WebElement addBookmark;
+
+    @FindBy(css = ".autoba-paging .current")
+    List<WebElement> currentListingPage;
+
+    @FindBy(css = ".autoba-paging .next")
+    List<WebElement> nextListingPage;
 
     public AutoMarketPage(WebDriver driver) {
         super(driver);
     }
 
-    private List<WebElement> carsRow;
-    private WebElement carBodyType;
-    private List<String> carPreviewInfo = new ArrayList<>();
+    private CarPreview carPreview;
 
 
+    private LeftMenu leftMenu() {
+        if (leftMenu == null) {
+            leftMenu = new LeftMenu(driver);
+        }
+        return leftMenu;
+    }
+
     public List<WebElement> getCarBodyTypeList() {
-        return leftMenu.getCarBodyTypeList();
+        return leftMenu().getCarBodyTypeList();
     }
 
     public List<WebElement> getCarEngineTypeList() {
-        return leftMenu.getCarEngineTypeList();
+        return leftMenu().getCarEngineTypeList();
     }
 
     public List<WebElement> getCarTransmissionTypeList() {
-        return leftMenu.getCarTransmissionTypeList();
+        return leftMenu().getCarTransmissionTypeList();
     }
 
     @Step("Get cars announcement list")
@@ -74,53 +101,135 @@ public class AutoMarketPage extends Page {
     @Step("Select {} car")
     public AutoMarketPage setCarFilteryType(List<WebElement> dataList, String filterData) {
         log.info("Select [" + filterData + "] car in car filter");
-        ElementsUtil.waitForClickable(leftMenu.getCarType(dataList, filterData));
-        leftMenu.getCarType(dataList, filterData).click();
+        ElementsUtil.waitForClickable(leftMenu().getCarType(dataList, filterData));
+        trackPageActivity();
+        leftMenu().getCarType(dataList, filterData).click();
+        awaitPageIdle();
+        return this;
+    }
+
+    @Step("Select {filterData} car")
+    public AutoMarketPage setCarFilter(LeftMenu.FilterGroup group, String filterData) {
+        log.info("Select [" + filterData + "] car in " + group + " filter");
+        ElementsUtil.waitForClickable(leftMenu().getCarType(group, filterData));
+        trackPageActivity();
+        leftMenu().getCarType(group, filterData).click();
+        awaitPageIdle();
         return this;
     }
 
     @Step("Verify car count for filter")
     public AutoMarketPage varifyCarCountForFilter(List<WebElement> dataList, String filterData) {
         log.info("Verify car count after filtering");
-        waitForVisible(leftMenu.getCarCount(dataList, filterData));
-        Assert.assertTrue(leftMenu.getHeaderAnnouncementCount().equals(leftMenu.getCarCount(dataList, filterData).getText()),
+        waitForVisible(leftMenu().getCarCount(dataList, filterData));
+        Assert.assertTrue(leftMenu().getHeaderAnnouncementCount().equals(leftMenu().getCarCount(dataList, filterData).getText()),
                 "Car count is wrong");
         return this;
     }
 
-    private void getAnnouncementInfo(WebElement element) {
-        waitForVisible(announcementTitle);
-        carPreviewInfo = Arrays.asList(element.findElement(By.cssSelector("span [href*='/car/']")).getText(),
-                element.findElement(By.cssSelector(".year")).getText(),
-                element.findElement(By.cssSelector(".dist strong")).getText(),
-                element.findElement(By.cssSelector(".txt p")).getText());
+    /**
+     * Read all announcement rows of the listing with a single script execution
+     *
+     * @return previews in listing order
+     */
+    @Step("Get announcement previews")
+    @SuppressWarnings("unchecked")
+    public List<CarPreview> getAnnouncementPreviews() {
+        List<Map<String, Object>> rows = (List<Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(
+                ANNOUNCEMENT_ROWS_SCRIPT, ANNOUNCEMENT_ROW, ANNOUNCEMENT_TITLE, ANNOUNCEMENT_YEAR, ANNOUNCEMENT_MILEAGE,
+                ANNOUNCEMENT_DESCRIPTION, ANNOUNCEMENT_PRICE);
+        return rows.stream()
+                .map(row -> CarPreview.builder()
+                        .title(String.valueOf(row.get("title")))
+                        .year(String.valueOf(row.get("year")))
+                        .mileage(String.valueOf(row.get("mileage")))
+                        .description(String.valueOf(row.get("description")))
+                        .price(String.valueOf(row.get("price")))
+                        .url(String.valueOf(row.get("url")))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return number of the listing page shown, 1 if the listing has no pager
+     */
+    public int getListingPageNumber() {
+        return currentListingPage.isEmpty() ? 1 : Integer.parseInt(currentListingPage.get(0).getText().trim());
     }
 
-    public List<String> getCarPreviewInfo() {
-        return carPreviewInfo;
+    public boolean hasNextListingPage() {
+        return !nextListingPage.isEmpty() && nextListingPage.get(0).isDisplayed();
+    }
+
+    @Step("Open next listing page")
+    public AutoMarketPage openNextListingPage() {
+        log.info("Open listing page " + (getListingPageNumber() + 1));
+        trackPageActivity();
+        nextListingPage.get(0).click();
+        awaitPageIdle();
+        return this;
+    }
+
+    /**
+     * Open the listing page by its number without paging through the ones before it, the listing shows its last page
+     * if it has fewer
+     */
+    @Step("Open listing page {page}")
+    public AutoMarketPage openListingPage(int page) {
+        log.info("Open listing page " + page);
+        trackPageActivity();
+        ((JavascriptExecutor) driver).executeScript(OPEN_LISTING_PAGE_SCRIPT, page);
+        awaitPageIdle();
+        return this;
+    }
+
+    public CarPreview getCarPreview() {
+        return carPreview;
     }
 
     @Step("One first car announcement")
     public CarAnnouncementPage openFirstAnnouncement() {
         log.info("Open car announcement");
         waitForVisible(announcementTitle);
-        WebElement element = announcementList.get(0);
-        getAnnouncementInfo(element);
-        element.findElement(By.cssSelector("span [href*='/car/']")).click();
-        return new CarAnnouncementPage(driver);
+        List<CarPreview> previews = getAnnouncementPreviews();
+        Assert.assertFalse(previews.isEmpty(), "Not fount any announcement");
+        carPreview = previews.get(0);
+        trackPageActivity();
+        announcementList.get(0).findElement(By.cssSelector(ANNOUNCEMENT_TITLE)).click();
+        awaitPageIdle();
+        return new CarAnnouncementPage(driver, carPreview);
+    }
+
+    /**
+     * Open announcements of the first listing rows on a few sessions at once and compare them with the rows, see
+     * {@link PreviewVerifier}. The driver is left on one of the announcements.
+     */
+    @Step("Verify first {count} announcements against their previews")
+    public PreviewVerifier.Report verifyFirstAnnouncements(int count, PreviewVerifier verifier) {
+        log.info("Verify first " + count + " announcements");
+        waitForVisible(announcementTitle);
+        List<CarPreview> previews = getAnnouncementPreviews();
+        Assert.assertFalse(previews.isEmpty(), "Not fount any announcement");
+        PreviewVerifier.Report report = verifier.verify(driver, previews.subList(0, Math.min(count, previews.size())));
+        Assert.assertTrue(report.isAllMatched(), "Announcements differ from previews: " + report.getFailures());
+        return report;
     }
 
     @Step("Select min price")
     public AutoMarketPage selectkMinPrice(String data) {
         log.info("Select from min price");
-        leftMenu.setMinPriceValue(data);
+        trackPageActivity();
+        leftMenu().setMinPriceValue(data);
+        awaitPageIdle();
         return this;
     }
 
     @Step("Select max price")
     public AutoMarketPage selectMaxPrice(String data) {
         log.info("Select from max price");
-        leftMenu.setMaxPrice(data);
+        trackPageActivity();
+        leftMenu().setMaxPrice(data);
+        awaitPageIdle();
         return this;
     }
 
@@ -128,8 +237,8 @@ public class AutoMarketPage extends Page {
     public AutoMarketPage verifyCarList(String minData, String maxData) {
         log.info("Verify car list with min [" + minData + " ] and max { " + maxData + " ] price");
         waitForVisible(autoMarketTitle);
-        announcementList.forEach(element -> Assert.assertTrue(element.findElement(By.cssSelector(".small")).getText().split("\n")[0].equals(minData + " $") ||
-                        element.findElement(By.cssSelector(".small")).getText().split("\n")[0].equals(maxData + " $"),
+        getAnnouncementPreviews().forEach(preview -> Assert.assertTrue(preview.getPrice().equals(minData + " $") ||
+                        preview.getPrice().equals(maxData + " $"),
                 "Announcement Car list not contains min[ " + minData + "$" + " ] max { " + maxData + "$" + " ] prices"));
         return this;
     }
@@ -1,59 +1,95 @@
 package com.onlinerautomation.page;
 
+import com.onlinerautomation.data.CarPreview;
 import com.onlinerautomation.utils.ElementsUtil;
+import com.onlinerautomation.utils.Scripts;
+import com.onlinerautomation.verification.CarInfoComparator;
+import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.testng.Assert;
 import org.testng.asserts.SoftAssert;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static java.util.Arrays.asList;
 
 @Slf4j
 public class CarAnnouncementPage extends Page {
 
-    protected AutoMarketPage autoMarketPage = new AutoMarketPage(driver);
+    private static final String CAR_DETAILS_SCRIPT = Scripts.load("/js/announcement-details.js");
+    private static final String CAR_NAME = ".autoba-fastchars-ttl";
+    private static final String CAR_YEAR = ".year strong";
+    private static final String CAR_DIST = ".dist strong";
+    private static final String CAR_DESCRIPTION = "[class*='autoba-msglongcont'] p:nth-of-type(2)";
+    // field names of CarInfoComparator with their elements
+    private static final List<List<String>> CAR_DETAILS = asList(asList("title", CAR_NAME), asList("year", CAR_YEAR),
+            asList("mileage", CAR_DIST), asList("description", CAR_DESCRIPTION));
+
+    private CarPreview carPreview;
 
     @FindBy(css = ".m-title")
-    private WebElement announcementTitle;
+    WebElement announcementTitle;
 
-    @FindBy(css = ".autoba-fastchars-ttl")
-    private WebElement carName;
+    @FindBy(css = CAR_NAME)
+    WebElement carName;
 
-    @FindBy(css = ".year strong")
-    private WebElement carYear;
+    @FindBy(css = CAR_YEAR)
+    WebElement carYear;
 
-    @FindBy(css = ".dist strong")
-    private WebElement carDist;
+    @FindBy(css = CAR_DIST)
+    WebElement carDist;
 
-    @FindBy(css = "[class*='autoba-msglongcont'] p:nth-of-type(2)")
-    private WebElement carDescription;
+    @FindBy(css = CAR_DESCRIPTION)
+    WebElement carDescription;
 
     @FindBy(css = ".autoba-msgphotos-slider img")
-    private List<WebElement> photoSlideBar;
+    List<WebElement> photoSlideBar;
 
     @FindBy(css = ".autoba-viewoptions")
-    private WebElement carOptionsForm;
+    WebElement carOptionsForm;
 
+    /**
+     * @return title, year, mileage and description of the announcement
+     */
     @Step("get announcement car information")
     public List<String> getCarInformation() {
-        return asList(carName.getText(), carYear.getText(), carDist.getText(), carDescription.getText());
+        return new ArrayList<>(getCarDetails().values());
+    }
+
+    /**
+     * Read all fields compared with the listing preview with a single script execution
+     *
+     * @return field values by {@link CarInfoComparator#FIELDS} names, empty for missing elements
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, String> getCarDetails() {
+        Map<String, Object> values = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                CAR_DETAILS_SCRIPT, CAR_DETAILS);
+        Map<String, String> details = new LinkedHashMap<>();
+        CAR_DETAILS.forEach(field -> details.put(field.get(0), String.valueOf(values.get(field.get(0)))));
+        return details;
     }
 
     @Step("Verify car info")
     public CarAnnouncementPage verifyCarInformation() {
         log.info("Verify car information");
+        Assert.assertNotNull(carPreview, "Announcement was not opened from listing preview");
         ElementsUtil.waitForVisible(announcementTitle);
-        SoftAssert softAssert = new SoftAssert();
         ((JavascriptExecutor) driver).executeScript("return arguments[0].scrollIntoView();", carName);
-        autoMarketPage.getCarPreviewInfo().forEach(actual -> {
-            this.getCarInformation().forEach(expected -> softAssert.assertTrue(actual.contains(expected), "Car information from preview not presented in announcement"));
-        });
-
+        List<CarInfoComparator.FieldDiff> diffs = CarInfoComparator.compare(carPreview, getCarDetails());
+        Allure.addAttachment("Car information diff", "text/csv", CarInfoComparator.toCsv(diffs), ".csv");
+        SoftAssert softAssert = new SoftAssert();
+        diffs.forEach(diff -> softAssert.assertTrue(diff.isMatched(),
+                "Car information from preview not presented in announcement, " + diff));
+        softAssert.assertAll();
         return this;
     }
 
@@ -74,4 +110,12 @@ public class CarAnnouncementPage extends Page {
     public CarAnnouncementPage(WebDriver driver) {
         super(driver);
     }
+
+    /**
+     * @param carPreview listing row the announcement was opened from
+     */
+    public CarAnnouncementPage(WebDriver driver, CarPreview carPreview) {
+        this(driver);
+        this.carPreview = carPreview;
+    }
 }
@@ -0,0 +1,152 @@
+package com.onlinerautomation.page;
+
+import com.onlinerautomation.utils.Scripts;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.internal.Locatable;
+import org.openqa.selenium.internal.WrapsElement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Filter name to checkbox and count element index of one {@link LeftMenu.FilterGroup}, built with a single script.
+ * <p>
+ * Lookups don't touch the browser. Returned elements are proxies over the indexed ones, when the filter form is
+ * re-rendered and an indexed element turns stale the index is rebuilt and the call is retried once. Unwrapping gives
+ * the indexed element as it is, which may be stale, e.g. {@link com.onlinerautomation.utils.ElementsUtil} observer
+ * waits fall back to polling the proxy then.
+ */
+@Slf4j
+class FilterIndex {
+    private static final String FILTER_INDEX_SCRIPT = Scripts.load("/js/filter-index.js");
+
+    private final WebDriver driver;
+    private final LeftMenu.FilterGroup group;
+    private Map<String, Entry> entries;
+
+    FilterIndex(WebDriver driver, LeftMenu.FilterGroup group) {
+        this.driver = driver;
+        this.group = group;
+    }
+
+    WebElement input(String name) {
+        return element(name, "input", entry -> entry.input);
+    }
+
+    WebElement count(String name) {
+        return element(name, "count", entry -> entry.count);
+    }
+
+    /**
+     * Drop the index, it is built again on next lookup
+     */
+    void invalidate() {
+        entries = null;
+    }
+
+    private WebElement element(String name, String part, Function<Entry, WebElement> getter) {
+        if (entries == null || !entries.containsKey(name)) {
+            rebuild();
+        }
+        // fail fast on missing filter instead of on first use of the proxy
+        resolve(name, part, getter);
+        return (WebElement) Proxy.newProxyInstance(FilterIndex.class.getClassLoader(),
+                new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class},
+                new IndexedElementHandler(name, part, getter));
+    }
+
+    private WebElement resolve(String name, String part, Function<Entry, WebElement> getter) {
+        Entry entry = entries.get(name);
+        WebElement element = entry == null ? null : getter.apply(entry);
+        if (element == null) {
+            throw new NoSuchElementException("No " + part + " of [" + name + "] in " + group + " filter, available: "
+                    + entries.keySet());
+        }
+        return element;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Map<String, Object>> items = (List<Map<String, Object>>) ((JavascriptExecutor) driver)
+                .executeScript(FILTER_INDEX_SCRIPT, group.getItemCss());
+        Map<String, Entry> index = new LinkedHashMap<>();
+        for (Map<String, Object> item : items) {
+            // the first item wins like in the former indexOf lookup
+            index.putIfAbsent(String.valueOf(item.get("name")),
+                    new Entry((WebElement) item.get("input"), (WebElement) item.get("count")));
+        }
+        entries = Collections.unmodifiableMap(index);
+        log.debug(group + " filter index of " + entries.size() + " items built in "
+                + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    private static class Entry {
+        private final WebElement input;
+        private final WebElement count;
+
+        Entry(WebElement input, WebElement count) {
+            this.input = input;
+            this.count = count;
+        }
+    }
+
+    private class IndexedElementHandler implements InvocationHandler {
+        private final String name;
+        private final String part;
+        private final Function<Entry, WebElement> getter;
+
+        IndexedElementHandler(String name, String part, Function<Entry, WebElement> getter) {
+            this.name = name;
+            this.part = part;
+            this.getter = getter;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("toString".equals(method.getName()) && method.getParameterCount() == 0) {
+                return "[" + name + "] " + part + " of " + group + " filter";
+            }
+            if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (entries == null) {
+                rebuild();
+            }
+            WebElement element = resolve(name, part, getter);
+            if ("getWrappedElement".equals(method.getName())) {
+                // not probed, a caller which gets it stale fails over to the calls of the proxy, which rebuild
+                return element;
+            }
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof StaleElementReferenceException)) {
+                    throw e.getCause();
+                }
+                log.debug(group + " filter was re-rendered, rebuilding index");
+                rebuild();
+                try {
+                    return method.invoke(resolve(name, part, getter), args);
+                } catch (InvocationTargetException retry) {
+                    throw retry.getCause();
+                }
+            }
+        }
+    }
+}
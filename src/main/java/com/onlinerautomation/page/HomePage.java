@@ -22,16 +22,16 @@ public class HomePage extends Page {
     public WebElement onlinerLogo;
 
     @FindBy(css = "[class='b-main-navigation__link'][href*='ab.onliner.by']")
-    private WebElement carsAnnouncement;
+    WebElement carsAnnouncement;
 
     @FindBy(css = "form .fast-search__input")
-    private WebElement searchField;
+    WebElement searchField;
 
     @FindBy(css = "[class*='result__item']")
-    private List<WebElement> searchResult;
+    List<WebElement> searchResult;
 
     @FindBy(css = ".modal-iframe")
-    private WebElement searchResultFrame;
+    WebElement searchResultFrame;
 
     public HomePage(WebDriver driver) {
         super(driver);
@@ -54,6 +54,7 @@ public class HomePage extends Page {
     public AutoMarketPage openAnnouncementCarPage() {
         ElementsUtil.waitForClickable(carsAnnouncement);
         clickOnCarAnnouncement();
+        awaitPageIdle();
         return new AutoMarketPage(driver);
     }
 
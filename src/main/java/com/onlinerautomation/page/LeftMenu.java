@@ -9,38 +9,64 @@ import org.openqa.selenium.support.FindBy;
 import ru.yandex.qatools.htmlelements.element.Select;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static com.onlinerautomation.utils.ElementsUtil.waitForVisible;
 
 @Slf4j
 public class LeftMenu extends Page {
+    private static final String BODY_TYPE_ITEM = "[class*=body_type]";
+    private static final String FUEL_ITEM = "[class*='fuel-'] ";
+    private static final String TRANSMISSION_ITEM = "[class*=transmission-]";
+
+    /**
+     * Filter lists of the menu
+     */
+    public enum FilterGroup {
+        BODY_TYPE(BODY_TYPE_ITEM),
+        FUEL(FUEL_ITEM),
+        TRANSMISSION(TRANSMISSION_ITEM);
+
+        private final String itemCss;
+
+        FilterGroup(String itemCss) {
+            this.itemCss = itemCss;
+        }
+
+        public String getItemCss() {
+            return itemCss;
+        }
+    }
+
+    private final Map<FilterGroup, FilterIndex> filterIndexes = new EnumMap<>(FilterGroup.class);
 
     public LeftMenu(WebDriver driver) {
         super(driver);
     }
 
     @FindBy(css = "ofm-forms autoba-filters")
-    private WebElement autoMarketFiltersForm;
+    WebElement autoMarketFiltersForm;
 
-    @FindBy(css = "[class*=body_type]")
-    private List<WebElement> carBodyTypeList;
+    @FindBy(css = BODY_TYPE_ITEM)
+    List<WebElement> carBodyTypeList;
 
-    @FindBy(css = "[class*='fuel-'] ")
-    private List<WebElement> carEngineTypeList;
+    @FindBy(css = FUEL_ITEM)
+    List<WebElement> carEngineTypeList;
 
-    @FindBy(css = "[class*=transmission-]")
-    private List<WebElement> transmissionList;
+    @FindBy(css = TRANSMISSION_ITEM)
+    List<WebElement> transmissionList;
 
     @FindBy(css = ".autoba-count .count")
-    private WebElement headerAnnouncementCount;
+    WebElement headerAnnouncementCount;
 
     @FindBy(css = "[name='min-price']")
-    private WebElement minPriceDropDown;
+    WebElement minPriceDropDown;
 
     @FindBy(css = "[name='max-price']")
-    private WebElement maxPriceDropDown;
+    WebElement maxPriceDropDown;
 
     @Step("Get list of car filtered by body type")
     public List<WebElement> getCarBodyTypeList() {
@@ -63,20 +89,50 @@ public class LeftMenu extends Page {
         return headerAnnouncementCount.getText();
     }
 
+    /**
+     * @return checkbox of the filter, list returned by one of the getters is looked up in the cached filter index
+     */
     public WebElement getCarType(List<WebElement> dataList, String filterData) {
-        List<String> bodyTypeNames;
-        List<String> carBodyTypeNames = new ArrayList<>();
-        bodyTypeNames = dataList.stream().map(WebElement::getText).collect(Collectors.toList());
-        for (String str : bodyTypeNames) carBodyTypeNames.add(str.split(" ")[0]);
-        return dataList.get(carBodyTypeNames.indexOf(filterData)).findElement(By.cssSelector("input"));
+        FilterGroup group = groupOf(dataList);
+        return group != null ? getCarType(group, filterData) : findInList(dataList, filterData, "input");
     }
 
+    /**
+     * @return count element of the filter, list returned by one of the getters is looked up in the cached filter index
+     */
     public WebElement getCarCount(List<WebElement> dataList, String filterData) {
-        List<String> bodyTypeNames;
+        FilterGroup group = groupOf(dataList);
+        return group != null ? getCarCount(group, filterData) : findInList(dataList, filterData, ".count");
+    }
+
+    public WebElement getCarType(FilterGroup group, String filterData) {
+        return filterIndex(group).input(filterData);
+    }
+
+    public WebElement getCarCount(FilterGroup group, String filterData) {
+        return filterIndex(group).count(filterData);
+    }
+
+    private FilterIndex filterIndex(FilterGroup group) {
+        return filterIndexes.computeIfAbsent(group, g -> new FilterIndex(driver, g));
+    }
+
+    private FilterGroup groupOf(List<WebElement> dataList) {
+        if (dataList == carBodyTypeList) {
+            return FilterGroup.BODY_TYPE;
+        } else if (dataList == carEngineTypeList) {
+            return FilterGroup.FUEL;
+        } else if (dataList == transmissionList) {
+            return FilterGroup.TRANSMISSION;
+        }
+        return null;
+    }
+
+    private WebElement findInList(List<WebElement> dataList, String filterData, String css) {
         List<String> carBodyTypeNames = new ArrayList<>();
-        bodyTypeNames = dataList.stream().map(WebElement::getText).collect(Collectors.toList());
+        List<String> bodyTypeNames = dataList.stream().map(WebElement::getText).collect(Collectors.toList());
         for (String str : bodyTypeNames) carBodyTypeNames.add(str.split(" ")[0]);
-        return dataList.get(carBodyTypeNames.indexOf(filterData)).findElement(By.cssSelector(".count"));
+        return dataList.get(carBodyTypeNames.indexOf(filterData)).findElement(By.cssSelector(css));
     }
 
     public void setMinPriceValue(String data) {
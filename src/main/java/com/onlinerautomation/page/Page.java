@@ -1,19 +1,47 @@
 package com.onlinerautomation.page;
 
+import com.onlinerautomation.binder.PageBinders;
+import com.onlinerautomation.utils.PageIdle;
+import com.onlinerautomation.utils.SuiteConfiguration;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+/**
+ * Base page. Elements are bound by generated binders (see {@link PageBinders}), so <code>@FindBy</code> fields are
+ * package-private. Sub-components are created on first use.
+ */
 @Slf4j
 public abstract class Page {
     protected WebDriver driver;
-    protected WebDriverWait wait;
+    private WebDriverWait wait;
 
     public Page(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, 30);
-        PageFactory.initElements(driver, this);
+        PageBinders.bind(driver, this);
+    }
+
+    protected WebDriverWait getWait() {
+        if (wait == null) {
+            wait = new WebDriverWait(driver, SuiteConfiguration.get().getWaitTimeout().getSeconds());
+        }
+        return wait;
+    }
+
+    /**
+     * Start tracking requests and DOM changes of the current document, call before an action which is followed by
+     * {@link #awaitPageIdle()} so requests started by the action are not missed
+     */
+    protected void trackPageActivity() {
+        PageIdle.track(driver);
+    }
+
+    /**
+     * Wait until the document is loaded, has no XHR or fetch in flight and stayed unchanged for a short quiet window,
+     * see {@link PageIdle}
+     */
+    public void awaitPageIdle() {
+        PageIdle.await(driver);
     }
 
     public String getTitle() {
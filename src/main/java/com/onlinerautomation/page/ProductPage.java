@@ -17,13 +17,13 @@ import static org.testng.Assert.assertEquals;
 public class ProductPage extends Page {
 
     @FindBy(css = "[class*='masthead__title']")
-    private WebElement goodTitle;
+    WebElement goodTitle;
 
     @FindBy(css = "[itemprop=description]")
-    private WebElement itemDescription;
+    WebElement itemDescription;
 
     @FindBy(css = "[id='specs']")
-    private WebElement productSpec;
+    WebElement productSpec;
 
     public List<String> getProductInfo() {
         return asList(goodTitle.getText().replaceAll("Смартфон ", ""), itemDescription.getText());
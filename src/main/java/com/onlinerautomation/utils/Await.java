@@ -15,6 +15,7 @@ import org.openqa.selenium.WebElement;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -23,20 +24,44 @@ import static org.testng.Assert.fail;
 
 /**
  * Customized implementation of Awaitility library
+ * <p>
+ * Await keeps the settings and evaluates condition with the {@link AwaitEngine} chosen by <code>await.engine</code>
+ * of {@link SuiteConfiguration}: awaitility (default) or in-thread.
  *
  * @see <a href="https://github.com/awaitility">Awaitility</a>
  */
 public class Await {
-    private ConditionFactory conditionFactory;
+    private static volatile PollStrategy defaultPollStrategy =
+            PollStrategies.byName(SuiteConfiguration.get().getString("await.poll.strategy"));
+    private static volatile AwaitEngine defaultEngine =
+            AwaitEngine.byName(SuiteConfiguration.get().getString("await.engine"));
+
+    private final AwaitEngine engine;
+    private Duration atMost;
+    private Duration atLeast;
+    private Duration pollDelay;
+    private PollInterval pollInterval;
+    private ExceptionIgnorer exceptionIgnorer = new PredicateExceptionIgnorer(e -> false);
+    private ConditionEvaluationListener conditionEvaluationListener;
+    private boolean catchUncaughtExceptions = true;
+    private PollStrategy pollStrategy;
+    private String key;
     private String errorMessage;
     private Callable<String> callableErrorMessage;
     private String exceptionMessage;
     private Callable<String> callableExceptionMessage;
+    private boolean recorded = true;
+    private InThreadAwaiter inThreadAwaiter;
+    // written by Awaitility evaluation thread, read after the wait is over
+    private volatile int polls;
+    private volatile int staleIgnored;
+    private volatile int noSuchIgnored;
 
     public Await() {
-        conditionFactory = Awaitility.await()
-                .ignoreException(StaleElementReferenceException.class)
-                .ignoreException(NoSuchElementException.class);
+        engine = defaultEngine;
+        pollStrategy = defaultPollStrategy;
+        ignoreException(StaleElementReferenceException.class);
+        ignoreException(NoSuchElementException.class);
     }
 
     /**
@@ -45,20 +70,23 @@ public class Await {
      * @param timeoutInMs is milliseconds
      */
     public Await(long timeoutInMs) {
-        long pollInterval;
-        if (timeoutInMs >= 10000) {
-            pollInterval = 1000;
-        } else if (timeoutInMs > 3000) {
-            pollInterval = 500;
-        } else if (timeoutInMs > 1000) {
-            pollInterval = 300;
-        } else {
-            pollInterval = 200;
-        }
-        conditionFactory = Awaitility.await().timeout(new Duration(timeoutInMs, MILLISECONDS))
-                .pollInterval(new FixedPollInterval(new Duration(pollInterval, MILLISECONDS)))
-                .ignoreException(StaleElementReferenceException.class)
-                .ignoreException(NoSuchElementException.class);
+        this(timeoutInMs, null);
+    }
+
+    /**
+     * Create Await with pollInterval and timeout picked by default {@link PollStrategy} for the given key
+     *
+     * @param timeoutInMs is milliseconds
+     * @param key         what is awaited, e.g. locator and condition name; waits with the same key share history
+     */
+    public Await(long timeoutInMs, String key) {
+        this.key = key;
+        engine = defaultEngine;
+        pollStrategy = defaultPollStrategy;
+        atMost(new Duration(pollStrategy.timeout(key, timeoutInMs), MILLISECONDS));
+        pollInterval(pollStrategy.pollInterval(key, timeoutInMs));
+        ignoreException(StaleElementReferenceException.class);
+        ignoreException(NoSuchElementException.class);
     }
 
     /**
@@ -74,6 +102,44 @@ public class Await {
         return new Await(seconds * 1000);
     }
 
+    /**
+     * Create Await instance with atMost wait time in seconds, poll interval is tuned by history of waits with the same key
+     *
+     * @param seconds timeout in seconds
+     * @param key     what is awaited, e.g. locator and condition name
+     * @return the Await instance
+     */
+    public static Await waitFor(int seconds, String key) {
+        if (seconds > 1000 || seconds == 0) {
+            throw new RuntimeException("Waiter timeout set to " + seconds + "s. Is it a typo?");
+        }
+        return new Await(seconds * 1000, key);
+    }
+
+    /**
+     * Set {@link PollStrategy} used by Await instances created afterwards
+     *
+     * @param pollStrategy the strategy, see {@link PollStrategies}
+     */
+    public static void setDefaultPollStrategy(PollStrategy pollStrategy) {
+        defaultPollStrategy = pollStrategy;
+    }
+
+    public static PollStrategy getDefaultPollStrategy() {
+        return defaultPollStrategy;
+    }
+
+    /**
+     * Set {@link AwaitEngine} used by Await instances created afterwards
+     */
+    public static void setDefaultEngine(AwaitEngine engine) {
+        defaultEngine = engine;
+    }
+
+    public static AwaitEngine getDefaultEngine() {
+        return defaultEngine;
+    }
+
     /**
      * Instruct Await that in case of waiting fail create TestNG fail (java.lang.AssertionError) with such static message
      *
@@ -132,7 +198,7 @@ public class Await {
      * @return the Await instance
      */
     public Await atLeast(Duration timeout) {
-        conditionFactory = conditionFactory.atLeast(timeout);
+        atLeast = timeout;
         return this;
     }
 
@@ -144,8 +210,7 @@ public class Await {
      * @return the Await instance
      */
     public Await atLeast(long timeout, TimeUnit unit) {
-        conditionFactory = conditionFactory.atLeast(timeout, unit);
-        return this;
+        return atLeast(new Duration(timeout, unit));
     }
 
     /**
@@ -175,7 +240,7 @@ public class Await {
      * @return the Await instance
      */
     public Await atMost(Duration timeout) {
-        conditionFactory = conditionFactory.atMost(timeout);
+        atMost = timeout;
         return this;
     }
 
@@ -187,8 +252,7 @@ public class Await {
      * @return the Await instance
      */
     public Await atMost(long timeout, TimeUnit unit) {
-        conditionFactory = conditionFactory.atMost(timeout, unit);
-        return this;
+        return atMost(new Duration(timeout, unit));
     }
 
     /**
@@ -220,8 +284,7 @@ public class Await {
      * @return the Await instance
      */
     public Await between(Duration atLeast, Duration atMost) {
-        conditionFactory = conditionFactory.between(atLeast, atMost);
-        return this;
+        return atLeast(atLeast).and().atMost(atMost);
     }
 
     /**
@@ -233,8 +296,7 @@ public class Await {
      * @return the Await instance
      */
     public Await between(long atLeastDuration, TimeUnit atLeastTimeUnit, long atMostDuration, TimeUnit atMostTimeUnit) {
-        conditionFactory = conditionFactory.between(atLeastDuration, atLeastTimeUnit, atMostDuration, atMostTimeUnit);
-        return this;
+        return between(new Duration(atLeastDuration, atLeastTimeUnit), new Duration(atMostDuration, atMostTimeUnit));
     }
 
     /**
@@ -246,7 +308,10 @@ public class Await {
      * @return the Await instance
      */
     public Await pollDelay(Duration pollDelay) {
-        conditionFactory = conditionFactory.pollDelay(pollDelay);
+        if (pollDelay == null) {
+            throw new IllegalArgumentException("pollDelay cannot be null");
+        }
+        this.pollDelay = pollDelay;
         return this;
     }
 
@@ -259,7 +324,9 @@ public class Await {
      * @return the Await instance
      */
     public Await pollInterval(PollInterval pollInterval) {
-        conditionFactory = conditionFactory.pollInterval(pollInterval);
+        this.pollInterval = pollInterval;
+        // the same as Awaitility, poll delay is fixed when interval is set
+        pollDelay = InThreadAwaiter.definePollDelay(pollDelay, pollInterval);
         return this;
     }
 
@@ -286,8 +353,7 @@ public class Await {
      * @see FixedPollInterval
      */
     public Await pollInterval(long pollInterval, TimeUnit unit) {
-        conditionFactory = conditionFactory.pollInterval(pollInterval, unit);
-        return this;
+        return pollInterval(new FixedPollInterval(new Duration(pollInterval, unit)));
     }
 
     /**
@@ -301,8 +367,10 @@ public class Await {
      * @return the Await instance
      */
     public Await ignoreExceptionsInstanceOf(Class<? extends Exception> exceptionType) {
-        conditionFactory = conditionFactory.ignoreExceptionsInstanceOf(exceptionType);
-        return this;
+        if (exceptionType == null) {
+            throw new IllegalArgumentException("exceptionType cannot be null");
+        }
+        return ignoreExceptionsMatching(e -> exceptionType.isAssignableFrom(e.getClass()));
     }
 
     /**
@@ -315,8 +383,10 @@ public class Await {
      * @return the Await instance
      */
     public Await ignoreException(Class<? extends Exception> exceptionType) {
-        conditionFactory = conditionFactory.ignoreException(exceptionType);
-        return this;
+        if (exceptionType == null) {
+            throw new IllegalArgumentException("exception cannot be null");
+        }
+        return ignoreExceptionsMatching(e -> e.getClass().equals(exceptionType));
     }
 
     /**
@@ -328,8 +398,7 @@ public class Await {
      * @return the Await instance
      */
     public Await ignoreExceptions() {
-        conditionFactory = conditionFactory.ignoreExceptions();
-        return this;
+        return ignoreExceptionsMatching(e -> true);
     }
 
     /**
@@ -351,7 +420,7 @@ public class Await {
      * @return the Await instance
      */
     public Await ignoreExceptionsMatching(Matcher<? super Throwable> matcher) {
-        conditionFactory = conditionFactory.ignoreExceptionsMatching(matcher);
+        exceptionIgnorer = new HamcrestExceptionIgnorer(matcher);
         return this;
     }
 
@@ -363,7 +432,7 @@ public class Await {
      * @return the Await instance.
      */
     public Await ignoreExceptionsMatching(Predicate<? super Throwable> predicate) {
-        conditionFactory = conditionFactory.ignoreExceptionsMatching(predicate);
+        exceptionIgnorer = new PredicateExceptionIgnorer(predicate);
         return this;
     }
 
@@ -425,7 +494,7 @@ public class Await {
      * @return the Await instance
      */
     public Await dontCatchUncaughtExceptions() {
-        conditionFactory = conditionFactory.dontCatchUncaughtExceptions();
+        catchUncaughtExceptions = false;
         return this;
     }
 
@@ -436,7 +505,7 @@ public class Await {
      * @return the Await instance
      */
     public Await conditionEvaluationListener(ConditionEvaluationListener conditionEvaluationListener) {
-        conditionFactory = conditionFactory.conditionEvaluationListener(conditionEvaluationListener);
+        this.conditionEvaluationListener = conditionEvaluationListener;
         return this;
     }
 
@@ -456,7 +525,7 @@ public class Await {
      */
     public <T> T untilCall(T ignore, Matcher<? super T> matcher) {
         try {
-            return conditionFactory.untilCall(ignore, matcher);
+            return measured(() -> conditionFactory().untilCall(ignore, matcher));
         } catch (ConditionTimeoutException ex) {
             conditionTimeoutExceptionHandling(ex);
             return null;
@@ -475,7 +544,9 @@ public class Await {
      **/
     public <T> T until(Callable<T> supplier, Matcher<? super T> matcher) {
         try {
-            return conditionFactory.until(supplier, matcher);
+            return measured(() -> inThread()
+                    ? inThreadAwaiter().until(supplier, matcher)
+                    : conditionFactory().until(supplier, matcher));
         } catch (ConditionTimeoutException ex) {
             conditionTimeoutExceptionHandling(ex);
             return null;
@@ -522,7 +593,14 @@ public class Await {
      */
     public void until(Callable<Boolean> conditionEvaluator) {
         try {
-            conditionFactory.until(conditionEvaluator);
+            measured(() -> {
+                if (inThread()) {
+                    inThreadAwaiter().until(conditionEvaluator);
+                } else {
+                    conditionFactory().until(conditionEvaluator);
+                }
+                return null;
+            });
         } catch (ConditionTimeoutException ex) {
             conditionTimeoutExceptionHandling(ex);
         }
@@ -572,7 +650,14 @@ public class Await {
      */
     public void untilAsserted(final ThrowingRunnable assertion) {
         try {
-            conditionFactory.untilAsserted(assertion);
+            measured(() -> {
+                if (inThread()) {
+                    inThreadAwaiter().untilAsserted(assertion);
+                } else {
+                    conditionFactory().untilAsserted(assertion);
+                }
+                return null;
+            });
         } catch (ConditionTimeoutException ex) {
             processMessages(ex);
             throwAssertionError("", ex);
@@ -587,7 +672,10 @@ public class Await {
      */
     public void untilTrue(final AtomicBoolean atomic) {
         try {
-            conditionFactory.untilTrue(atomic);
+            measured(() -> {
+                conditionFactory().untilTrue(atomic);
+                return null;
+            });
         } catch (ConditionTimeoutException ex) {
             conditionTimeoutExceptionHandling(ex);
         }
@@ -601,12 +689,101 @@ public class Await {
      */
     public void untilFalse(final AtomicBoolean atomic) {
         try {
-            conditionFactory.untilFalse(atomic);
+            measured(() -> {
+                conditionFactory().untilFalse(atomic);
+                return null;
+            });
         } catch (ConditionTimeoutException ex) {
             conditionTimeoutExceptionHandling(ex);
         }
     }
 
+    /**
+     * Report wait duration and outcome to the {@link PollStrategy} and {@link WaitStats}
+     */
+    private <T> T measured(Supplier<T> wait) {
+        polls = 0;
+        staleIgnored = 0;
+        noSuchIgnored = 0;
+        inThreadAwaiter = null;
+        long start = System.nanoTime();
+        WaitRecord.Outcome outcome = WaitRecord.Outcome.ERROR;
+        try {
+            T result = wait.get();
+            outcome = WaitRecord.Outcome.FULFILLED;
+            return result;
+        } catch (ConditionTimeoutException ex) {
+            outcome = WaitRecord.Outcome.TIMEOUT;
+            throw ex;
+        } finally {
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            pollStrategy.record(key, elapsedMs, outcome == WaitRecord.Outcome.FULFILLED);
+            if (recorded) {
+                if (inThreadAwaiter != null) {
+                    WaitStats.record(key, WaitEngine.POLLING, elapsedMs, inThreadAwaiter.getPolls(),
+                            inThreadAwaiter.getStaleIgnored(), inThreadAwaiter.getNoSuchIgnored(), outcome);
+                } else {
+                    WaitStats.record(key, WaitEngine.POLLING, elapsedMs, polls, staleIgnored, noSuchIgnored, outcome);
+                }
+            }
+        }
+    }
+
+    /**
+     * Condition evaluation listener is called by Awaitility internals only, such waits stay on Awaitility
+     */
+    private boolean inThread() {
+        return engine == AwaitEngine.IN_THREAD && conditionEvaluationListener == null;
+    }
+
+    private InThreadAwaiter inThreadAwaiter() {
+        inThreadAwaiter = new InThreadAwaiter(atMost, atLeast, pollDelay, pollInterval, exceptionIgnorer);
+        return inThreadAwaiter;
+    }
+
+    /**
+     * Awaitility condition factory with the settings of this Await. Conditions are passed to it unwrapped to keep
+     * Awaitility messages, evaluations and ignored exceptions are counted by the listener and exception ignorer.
+     */
+    @SuppressWarnings("unchecked")
+    private ConditionFactory conditionFactory() {
+        ConditionFactory factory = Awaitility.await();
+        if (atMost != null) {
+            factory = factory.atMost(atMost);
+        }
+        if (atLeast != null) {
+            factory = factory.atLeast(atLeast);
+        }
+        if (pollInterval != null) {
+            factory = factory.pollInterval(pollInterval);
+        }
+        if (pollDelay != null) {
+            factory = factory.pollDelay(pollDelay);
+        }
+        if (!catchUncaughtExceptions) {
+            factory = factory.dontCatchUncaughtExceptions();
+        }
+        ExceptionIgnorer ignorer = exceptionIgnorer;
+        ConditionEvaluationListener listener = conditionEvaluationListener;
+        return factory
+                .ignoreExceptionsMatching(e -> {
+                    polls++;
+                    boolean ignored = ignorer.shouldIgnoreException(e);
+                    if (ignored && e instanceof StaleElementReferenceException) {
+                        staleIgnored++;
+                    } else if (ignored && e instanceof NoSuchElementException) {
+                        noSuchIgnored++;
+                    }
+                    return ignored;
+                })
+                .conditionEvaluationListener(condition -> {
+                    polls++;
+                    if (listener != null) {
+                        listener.conditionEvaluated(condition);
+                    }
+                });
+    }
+
     /**
      * clean all messages, so that if you wish you could re-use your Await object
      */
@@ -667,10 +844,20 @@ public class Await {
     }
 
 
+    /**
+     * Don't report this wait to {@link WaitStats}, for waits which are a part of another recorded wait
+     */
+    Await unrecorded() {
+        recorded = false;
+        return this;
+    }
+
     //DON'T use this in your tests!!, this is for internal use in ElementsUtil only!
     WebElement untilGot(Callable<WebElement> callable) {
         try {
-            return conditionFactory.until(callable, isA(WebElement.class));
+            return measured(() -> inThread()
+                    ? inThreadAwaiter().until(callable, isA(WebElement.class))
+                    : conditionFactory().until(callable, isA(WebElement.class)));
         } catch (ConditionTimeoutException ex) {
             conditionTimeoutExceptionHandling(ex);
             return null;
@@ -0,0 +1,32 @@
+package com.onlinerautomation.utils;
+
+/**
+ * Where {@link Await} evaluates conditions
+ */
+public enum AwaitEngine {
+    /**
+     * Awaitility: condition factory and executor thread per wait, condition is evaluated on that thread
+     */
+    AWAITILITY,
+    /**
+     * Condition is evaluated on the waiting thread by {@link InThreadAwaiter}, with the same timing and messages.
+     * <code>untilCall</code>, <code>untilTrue</code>, <code>untilFalse</code> and waits with a condition evaluation
+     * listener stay on Awaitility.
+     */
+    IN_THREAD;
+
+    /**
+     * @param name awaitility or in-thread
+     */
+    public static AwaitEngine byName(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "awaitility":
+                return AWAITILITY;
+            case "in-thread":
+            case "in_thread":
+                return IN_THREAD;
+            default:
+                throw new IllegalArgumentException("Unknown await engine [" + name + "], expected awaitility or in-thread");
+        }
+    }
+}
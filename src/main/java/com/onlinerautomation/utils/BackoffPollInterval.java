@@ -0,0 +1,60 @@
+package com.onlinerautomation.utils;
+
+import org.awaitility.Duration;
+import org.awaitility.pollinterval.PollInterval;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Poll interval which starts small and grows exponentially up to a cap.
+ * <p>
+ * The first interval (after the first, immediate evaluation) may differ from the rest of the sequence,
+ * that is used by {@link PollStrategies#learning()} to jump close to the expected completion time.
+ * E.g. <code>new BackoffPollInterval(50, 1.5, 1000)</code> sleeps 50, 75, 112, 168 ... 1000, 1000 ms.
+ */
+public class BackoffPollInterval implements PollInterval {
+    private final long firstInMs;
+    private final long initialInMs;
+    private final double factor;
+    private final long maxInMs;
+
+    public BackoffPollInterval(long initialInMs, double factor, long maxInMs) {
+        this(initialInMs, initialInMs, factor, maxInMs);
+    }
+
+    /**
+     * @param firstInMs   interval after the first evaluation
+     * @param initialInMs interval after the second evaluation, the base of exponential growth
+     * @param factor      growth factor, must be at least 1
+     * @param maxInMs     interval cap
+     */
+    public BackoffPollInterval(long firstInMs, long initialInMs, double factor, long maxInMs) {
+        if (factor < 1) {
+            throw new IllegalArgumentException("Backoff factor must be >= 1, got " + factor);
+        }
+        this.firstInMs = Math.min(firstInMs, maxInMs);
+        this.initialInMs = Math.min(initialInMs, maxInMs);
+        this.factor = factor;
+        this.maxInMs = maxInMs;
+    }
+
+    @Override
+    public Duration next(int pollCount, Duration previousDuration) {
+        return new Duration(nextInMs(pollCount, previousDuration.getValueInMS()), MILLISECONDS);
+    }
+
+    long nextInMs(int pollCount, long previousInMs) {
+        if (pollCount <= 1) {
+            return firstInMs;
+        } else if (pollCount == 2 && firstInMs != initialInMs) {
+            return initialInMs;
+        }
+        return Math.min(maxInMs, Math.max(initialInMs, (long) (previousInMs * factor)));
+    }
+
+    @Override
+    public String toString() {
+        return "BackoffPollInterval{first=" + firstInMs + "ms, initial=" + initialInMs + "ms, factor=" + factor
+                + ", max=" + maxInMs + "ms}";
+    }
+}
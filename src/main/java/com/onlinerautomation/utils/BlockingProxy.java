@@ -0,0 +1,357 @@
+package com.onlinerautomation.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.Proxy;
+import org.openqa.selenium.remote.CapabilityType;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Local HTTP proxy for browser sessions which drops requests to third-party hosts (ads, analytics, counters) of
+ * {@link SuiteConfiguration} <code>proxy.block.hosts</code>, a blocked host matches itself and its subdomains.
+ * <p>
+ * HTTPS goes through <code>CONNECT</code> tunnels, plain HTTP requests go upstream with the request line in origin
+ * form and hop-by-hop headers left out, everything else including the body framing is passed as it is and the
+ * response is streamed back unchanged. Every connection carries one request and is closed afterwards, as well as its
+ * connection upstream.
+ */
+@Slf4j
+public class BlockingProxy {
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 60_000;
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final Set<String> HOP_BY_HOP_HEADERS = new HashSet<>(Arrays.asList("connection", "keep-alive",
+            "proxy-connection", "proxy-authorization", "proxy-authenticate", "te", "trailer", "upgrade"));
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final List<String> blockedHosts;
+    private final ConcurrentMap<String, HostStats> hosts = new ConcurrentHashMap<>();
+
+    private BlockingProxy(ServerSocket serverSocket, Collection<String> blockedHosts) {
+        this.serverSocket = serverSocket;
+        this.blockedHosts = blockedHosts.stream().map(String::toLowerCase).collect(Collectors.toList());
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "blocking-proxy");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start proxy on loopback interface configured with <code>proxy.*</code> properties of {@link SuiteConfiguration}
+     */
+    public static BlockingProxy start(SuiteConfiguration config) {
+        return start(config.getInt("proxy.port"), list(config.getString("proxy.block.hosts")));
+    }
+
+    /**
+     * @param port         port to listen, 0 picks a free one
+     * @param blockedHosts hosts which are answered with empty response, subdomains included
+     */
+    public static BlockingProxy start(int port, Collection<String> blockedHosts) {
+        try {
+            ServerSocket serverSocket = new ServerSocket();
+            serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            BlockingProxy proxy = new BlockingProxy(serverSocket, blockedHosts);
+            proxy.executor.execute(proxy::accept);
+            log.info("Blocking proxy started at " + proxy.getAddress() + ", " + blockedHosts.size() + " blocked hosts");
+            return proxy;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start blocking proxy on port " + port, e);
+        }
+    }
+
+    /**
+     * @return host:port of the proxy
+     */
+    public String getAddress() {
+        return "localhost:" + serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return capabilities with HTTP and SSL traffic of the session routed through this proxy
+     */
+    public Capabilities configure(Capabilities capabilities) {
+        Proxy proxy = new Proxy();
+        proxy.setHttpProxy(getAddress());
+        proxy.setSslProxy(getAddress());
+        MutableCapabilities proxied = new MutableCapabilities(capabilities);
+        proxied.setCapability(CapabilityType.PROXY, proxy);
+        return proxied;
+    }
+
+    public void stop() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.debug("Blocking proxy socket close failed: " + e.getMessage());
+        }
+        executor.shutdownNow();
+        log.info("Blocking proxy stopped, " + getSummary());
+    }
+
+    /**
+     * @return totals of all hosts, e.g. <code>1200 requests, 310 blocked, 850 tunnels</code>
+     */
+    public String getSummary() {
+        HostStats total = new HostStats();
+        hosts.values().forEach(host -> host.addTo(total));
+        return total.requests.sum() + " requests, " + total.blocked.sum() + " blocked, " + total.tunnels.sum()
+                + " tunnels";
+    }
+
+    /**
+     * Write requests per host into <code>proxy.csv</code> of the directory, the most requested hosts first
+     */
+    public void writeReport(Path dir) {
+        StringBuilder csv = new StringBuilder("host,requests,blocked,tunnels\n");
+        hosts.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().requests.sum(), a.getValue().requests.sum()))
+                .forEach(host -> csv.append(host.getKey()).append(',').append(host.getValue().toCsv()).append('\n'));
+        try {
+            Files.createDirectories(dir);
+            Files.write(dir.resolve("proxy.csv"), csv.toString().getBytes(UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write proxy report to " + dir, e);
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                executor.execute(() -> serve(client));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.warn("Blocking proxy accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        try (Socket socket = client) {
+            socket.setSoTimeout(READ_TIMEOUT_MS);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            String requestLine = readLine(in);
+            if (requestLine == null || requestLine.isEmpty()) {
+                return;
+            }
+            String[] request = requestLine.split(" ");
+            Map<String, List<String>> headers = readHeaders(in);
+            if (request.length != 3) {
+                respond(out, 400, "Bad Request");
+            } else if ("CONNECT".equals(request[0])) {
+                tunnel(request[1], in, out);
+            } else {
+                forward(request[0], URI.create(request[1]), request[2], headers, in, out);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Blocking proxy request failed: " + e.getMessage());
+        }
+    }
+
+    private void tunnel(String target, InputStream in, OutputStream out) throws IOException {
+        int colon = target.lastIndexOf(':');
+        String host = colon < 0 ? target : target.substring(0, colon);
+        int port = colon < 0 ? 443 : Integer.parseInt(target.substring(colon + 1));
+        HostStats stats = stats(host);
+        if (isBlocked(host)) {
+            stats.blocked.increment();
+            respond(out, 403, "Forbidden");
+            return;
+        }
+        stats.tunnels.increment();
+        try (Socket upstream = connect(host, port)) {
+            out.write("HTTP/1.1 200 Connection established\r\n\r\n".getBytes(ISO_8859_1));
+            out.flush();
+            relay(target, in, out, upstream);
+        } catch (IOException e) {
+            log.debug("Tunnel to " + target + " failed: " + e.getMessage());
+        }
+    }
+
+    private void forward(String method, URI uri, String version, Map<String, List<String>> headers, InputStream in,
+                         OutputStream out) throws IOException {
+        String host = uri.getHost();
+        if (host == null || !"http".equalsIgnoreCase(uri.getScheme())) {
+            respond(out, 400, "Bad Request");
+            return;
+        }
+        HostStats stats = stats(host);
+        if (isBlocked(host)) {
+            stats.blocked.increment();
+            respond(out, 204, "No Content");
+            return;
+        }
+        Socket upstream;
+        try {
+            upstream = connect(host, uri.getPort() < 0 ? 80 : uri.getPort());
+        } catch (IOException e) {
+            log.debug("Request to " + uri + " failed: " + e.getMessage());
+            respond(out, 502, "Bad Gateway");
+            return;
+        }
+        try (Socket connection = upstream) {
+            String target = (uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath())
+                    + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+            StringBuilder head = new StringBuilder(method).append(' ').append(target).append(' ').append(version)
+                    .append("\r\n");
+            // repeated headers stay on their own lines, values of some of them, like Cookie, can't be joined
+            headers.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase()) && !"host".equalsIgnoreCase(name)) {
+                    values.forEach(value -> head.append(name).append(": ").append(value).append("\r\n"));
+                }
+            });
+            head.append("Host: ").append(uri.getRawAuthority()).append("\r\n")
+                    .append("Connection: close\r\n\r\n");
+            OutputStream upstreamOut = connection.getOutputStream();
+            upstreamOut.write(head.toString().getBytes(ISO_8859_1));
+            upstreamOut.flush();
+            // the body in its own framing and the response, interim ones included, pass as they are
+            relay(uri.toString(), in, out, connection);
+        }
+    }
+
+    /**
+     * Pass the rest of the client connection upstream on another thread and the upstream one back until they close
+     */
+    private void relay(String target, InputStream in, OutputStream out, Socket upstream) throws IOException {
+        executor.execute(() -> {
+            try {
+                pump(in, upstream.getOutputStream());
+                upstream.shutdownOutput();
+            } catch (IOException e) {
+                log.trace("Connection to " + target + " closed by client: " + e.getMessage());
+            }
+        });
+        pump(upstream.getInputStream(), out);
+    }
+
+    private static Socket connect(String host, int port) throws IOException {
+        Socket upstream = new Socket();
+        try {
+            upstream.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+            upstream.setSoTimeout(READ_TIMEOUT_MS);
+            return upstream;
+        } catch (IOException e) {
+            upstream.close();
+            throw e;
+        }
+    }
+
+    private boolean isBlocked(String host) {
+        String name = host.toLowerCase();
+        for (String blocked : blockedHosts) {
+            if (name.equals(blocked) || name.endsWith("." + blocked)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private HostStats stats(String host) {
+        HostStats stats = hosts.computeIfAbsent(host.toLowerCase(), h -> new HostStats());
+        stats.requests.increment();
+        return stats;
+    }
+
+    private static void respond(OutputStream out, int status, String message) throws IOException {
+        out.write(("HTTP/1.1 " + status + " " + message + "\r\nConnection: close\r\n\r\n").getBytes(ISO_8859_1));
+        out.flush();
+    }
+
+    private static void pump(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        try {
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (SocketException e) {
+            // the other side is closed
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return b == -1 && line.size() == 0 ? null : new String(line.toByteArray(), ISO_8859_1);
+    }
+
+    private static Map<String, List<String>> readHeaders(InputStream in) throws IOException {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.computeIfAbsent(line.substring(0, colon).trim(), name -> new ArrayList<>())
+                        .add(line.substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    private static List<String> list(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static class HostStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder blocked = new LongAdder();
+        private final LongAdder tunnels = new LongAdder();
+
+        void addTo(HostStats total) {
+            total.requests.add(requests.sum());
+            total.blocked.add(blocked.sum());
+            total.tunnels.add(tunnels.sum());
+        }
+
+        String toCsv() {
+            return requests.sum() + "," + blocked.sum() + "," + tunnels.sum();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.onlinerautomation.utils;
+
+import io.qameta.allure.Step;
+import lombok.Value;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsElement;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every command of a decorated driver: its type, locator, latency and the code which sent it. Calls the driver
+ * objects answer without a command, like <code>manage()</code> or <code>getCapabilities()</code>, are not recorded.
+ * Tracing takes the stack of the sending thread on every command, so it is off by default.
+ * <p>
+ * The code is the stack of project methods on the calling thread from the test down: page objects, tests, verifiers
+ * and {@link ElementsUtil} waits, plus any other <code>@Step</code> method, e.g.
+ * <code>CarMarketTest.testFilterByCarBodyTypes;AutoMarketPage.varifyCarCountForFilter;LeftMenu.getCarCount</code>.
+ * Commands sent by other threads, like polling threads of waits, continue the stack of the thread which installed the
+ * tracer, the one waiting for them.
+ * <p>
+ * Element commands are described by the locator the element was found with, or by the element itself if it came
+ * from a script. Latency is measured around the decorators below this one, e.g. waiting for a shared tab.
+ */
+public final class CommandTracer extends DriverDecorator {
+    private static final String PROJECT_PACKAGE = "com.onlinerautomation.";
+    private static final String[] INFRASTRUCTURE_PACKAGES = {"com.onlinerautomation.utils.",
+            "com.onlinerautomation.binder."};
+    private static final Map<String, Boolean> traced = new ConcurrentHashMap<>();
+    private static final String UNATTRIBUTED = "(unattributed)";
+    // answered by the driver object itself without a command, e.g. manage() only gives the object of the next call
+    private static final Set<String> LOCAL = new HashSet<>(Arrays.asList("manage", "navigate", "switchTo",
+            "timeouts", "window", "ime", "logs", "getKeyboard", "getMouse", "getCapabilities", "getCoordinates",
+            "getId"));
+
+    private final Thread owner;
+    private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+    private final Map<Object, String> locators = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private CommandTracer(Thread owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * @return driver with traced commands if <code>command.trace</code> is on, the driver itself otherwise, commands
+     * of other threads are attributed to the current one
+     */
+    public static WebDriver install(WebDriver driver) {
+        return SuiteConfiguration.get().getBoolean("command.trace")
+                ? new CommandTracer(Thread.currentThread()).decorate(driver) : driver;
+    }
+
+    /**
+     * @return commands recorded since the previous call
+     */
+    public List<Command> drain() {
+        List<Command> drained = new ArrayList<>();
+        for (Command command = commands.poll(); command != null; command = commands.poll()) {
+            drained.add(command);
+        }
+        return drained;
+    }
+
+    @Override
+    protected Object invoke(Call call) throws Throwable {
+        if (LOCAL.contains(call.getMethod().getName())) {
+            return call.proceed();
+        }
+        List<String> frames = framesOf(Thread.currentThread());
+        if (Thread.currentThread() != owner) {
+            frames = continued(framesOf(owner), frames);
+        }
+        String stack = String.join(";", frames);
+        String locator = locatorOf(call);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = call.proceed();
+            failed = false;
+            rememberLocator(call, result);
+            return result;
+        } finally {
+            commands.add(new Command(stack.isEmpty() ? UNATTRIBUTED : stack,
+                    call.getMethod().getDeclaringClass().getSimpleName() + "." + call.getMethod().getName(), locator,
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), failed));
+        }
+    }
+
+    private String locatorOf(Call call) {
+        Object[] args = call.getArgs();
+        if (args.length > 0 && args[0] instanceof By) {
+            return args[0].toString();
+        } else if (call.isElementCall()) {
+            String locator = locators.get(call.getDelegate());
+            return locator != null ? locator : call.getDelegate().toString();
+        }
+        return "";
+    }
+
+    private void rememberLocator(Call call, Object result) {
+        Object[] args = call.getArgs();
+        if (args.length == 0 || !(args[0] instanceof By)) {
+            return;
+        }
+        String locator = call.isElementCall()
+                ? locatorOf(call) + " > " + args[0] : args[0].toString();
+        if (result instanceof WebElement) {
+            locators.put(((WrapsElement) result).getWrappedElement(), locator);
+        } else if (result instanceof List) {
+            for (Object element : (List<?>) result) {
+                locators.put(((WrapsElement) element).getWrappedElement(), locator);
+            }
+        }
+    }
+
+    /**
+     * @return frames of the owner thread, waiting for the other thread, followed by the frames of the other thread
+     * which the owner is not in yet
+     */
+    private static List<String> continued(List<String> owner, List<String> other) {
+        int skipped = 0;
+        while (skipped < other.size() && owner.contains(other.get(skipped))) {
+            skipped++;
+        }
+        List<String> frames = new ArrayList<>(owner);
+        frames.addAll(other.subList(skipped, other.size()));
+        return frames;
+    }
+
+    /**
+     * @return project frames of the thread from the outermost, AspectJ closures are left out and the body of a woven
+     * <code>@Step</code> method folds into the method
+     */
+    private static List<String> framesOf(Thread thread) {
+        StackTraceElement[] trace = thread.getStackTrace();
+        List<String> frames = new ArrayList<>();
+        for (int i = trace.length - 1; i >= 0; i--) {
+            StackTraceElement element = trace[i];
+            if (!element.getClassName().startsWith(PROJECT_PACKAGE) || StackFrames.isWoven(element)
+                    || !isTraced(element)) {
+                continue;
+            }
+            String className = element.getClassName();
+            String frame = className.substring(className.lastIndexOf('.') + 1).replaceFirst("\\$.*", "") + "."
+                    + StackFrames.methodName(element);
+            if (frames.isEmpty() || !frames.get(frames.size() - 1).equals(frame)) {
+                frames.add(frame);
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * Leaves out synthetic frames: accessors, lambdas in lambdas or in static initializers (named <code>null</code>
+     * and <code>static</code>) and handlers of element proxies
+     */
+    private static boolean isTraced(StackTraceElement element) {
+        String className = element.getClassName();
+        String methodName = StackFrames.methodName(element);
+        if (methodName.startsWith("access$") || methodName.equals("null") || methodName.equals("static")) {
+            return false;
+        }
+        return traced.computeIfAbsent(className + "#" + methodName, key -> {
+            boolean infrastructure = Arrays.stream(INFRASTRUCTURE_PACKAGES).anyMatch(className::startsWith);
+            Class<?> type;
+            try {
+                type = Class.forName(className, false, CommandTracer.class.getClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                // e.g. a test class of another class loader
+                return !infrastructure;
+            }
+            if (InvocationHandler.class.isAssignableFrom(type)) {
+                return false;
+            } else if (type == ElementsUtil.class || !infrastructure) {
+                return true;
+            }
+            return Arrays.stream(type.getDeclaredMethods())
+                    .anyMatch(method -> method.getName().equals(methodName) && method.isAnnotationPresent(Step.class));
+        });
+    }
+
+    /**
+     * Command sent to the driver
+     */
+    @Value
+    public static class Command {
+        /**
+         * project frames which sent the command from the outermost, separated by <code>;</code>
+         */
+        String stack;
+        /**
+         * e.g. <code>WebElement.click</code>
+         */
+        String type;
+        /**
+         * locator of the element or of the search, empty for other commands
+         */
+        String locator;
+        long latencyMicros;
+        boolean failed;
+    }
+}
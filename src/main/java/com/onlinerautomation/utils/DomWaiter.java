@@ -0,0 +1,246 @@
+package com.onlinerautomation.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.awaitility.core.ConditionTimeoutException;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+import org.openqa.selenium.internal.WrapsElement;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * {@link WaitEngine#MUTATION_OBSERVER} implementation. Installs a MutationObserver with <code>executeAsyncScript</code>
+ * so waiting costs one WebDriver command instead of one per poll. Tabs of a shared session ({@link TabBound}) poll
+ * instead, a script waiting in one tab would hold the session from the others.
+ */
+@Slf4j
+class DomWaiter {
+    private static final String SCRIPT = Scripts.load("/js/dom-wait.js");
+    private static final long SCRIPT_TIMEOUT_MARGIN_MS = 5000;
+
+    enum Condition {
+        VISIBLE("visible"),
+        HIDDEN("hidden"),
+        CLICKABLE("clickable"),
+        CLASS_PRESENT("classPresent"),
+        CLASS_ABSENT("classAbsent"),
+        TEXT_PRESENT("textPresent");
+
+        private final String jsName;
+
+        Condition(String jsName) {
+            this.jsName = jsName;
+        }
+    }
+
+    private DomWaiter() {
+    }
+
+    /**
+     * Wait for condition of element in the browser. Element which is not in DOM yet is awaited by polling first.
+     *
+     * @param key wait key reported to {@link WaitStats}
+     * @return false if element can't be watched in the browser and caller has to poll instead
+     * @throws ConditionTimeoutException if condition was not fulfilled in time
+     */
+    static boolean await(WebElement element, Condition condition, String argument, int seconds, String key,
+                         Callable<String> message) {
+        int[] scripts = new int[1];
+        return recorded(key, scripts, () -> observe(element, condition, argument, seconds, message, scripts));
+    }
+
+    /**
+     * Wait for condition of the first element matching locator in the browser
+     *
+     * @param key wait key reported to {@link WaitStats}
+     * @return false if locator can't be expressed as css selector and caller has to poll instead
+     * @throws ConditionTimeoutException if condition was not fulfilled in time
+     */
+    static boolean await(WebDriver driver, By by, Condition condition, String argument, int seconds, String key,
+                         Callable<String> message) {
+        int[] scripts = new int[1];
+        return recorded(key, scripts, () -> observe(driver, by, condition, argument, seconds, message, scripts));
+    }
+
+    /**
+     * Report observer wait to {@link WaitStats}, unless the observer can't be used and the caller polls instead
+     */
+    private static boolean recorded(String key, int[] scripts, BooleanSupplier wait) {
+        long start = System.nanoTime();
+        WaitRecord.Outcome outcome = WaitRecord.Outcome.ERROR;
+        boolean observed = true;
+        try {
+            observed = wait.getAsBoolean();
+            outcome = WaitRecord.Outcome.FULFILLED;
+            return observed;
+        } catch (ConditionTimeoutException e) {
+            outcome = WaitRecord.Outcome.TIMEOUT;
+            throw e;
+        } finally {
+            if (observed) {
+                WaitStats.record(key, WaitEngine.MUTATION_OBSERVER,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), scripts[0], 0, 0, outcome);
+            }
+        }
+    }
+
+    private static boolean observe(WebElement element, Condition condition, String argument, int seconds,
+                                   Callable<String> message, int[] scripts) {
+        if (TabBound.isBound(element)) {
+            return false;
+        }
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(seconds);
+        while (true) {
+            WebElement located;
+            if (condition == Condition.HIDDEN) {
+                located = tryUnwrap(element);
+                if (located == null) {
+                    return true;
+                }
+            } else {
+                located = Await.waitFor(seconds)
+                        .unrecorded()
+                        .atMost(Math.max(1, deadline - System.currentTimeMillis()))
+                        .withException(message)
+                        .untilGot(() -> unwrap(element));
+            }
+            WebDriver driver = driverOf(located);
+            if (driver == null || TabBound.isBound(driver)) {
+                return false;
+            }
+            scripts[0]++;
+            String result = execute(driver, located, null, condition, argument, deadline);
+            if (result == null) {
+                return false;
+            } else if ("ok".equals(result)) {
+                return true;
+            } else if ("timeout".equals(result)) {
+                throw timeout(message, condition, seconds);
+            } else if (!(element instanceof WrapsElement)) {
+                // a found element never becomes fresh again, polling will report it
+                return false;
+            }
+        }
+    }
+
+    private static boolean observe(WebDriver driver, By by, Condition condition, String argument, int seconds,
+                                   Callable<String> message, int[] scripts) {
+        String selector = cssSelector(by);
+        if (selector == null || !(driver instanceof JavascriptExecutor) || TabBound.isBound(driver)) {
+            return false;
+        }
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(seconds);
+        scripts[0]++;
+        String result = execute(driver, null, selector, condition, argument, deadline);
+        if (result == null) {
+            return false;
+        } else if ("timeout".equals(result)) {
+            throw timeout(message, condition, seconds);
+        }
+        return true;
+    }
+
+    /**
+     * @return script result or null if script failed, e.g. page was reloaded while waiting
+     */
+    private static String execute(WebDriver driver, WebElement element, String selector, Condition condition,
+                                  String argument, long deadline) {
+        long timeout = deadline - System.currentTimeMillis();
+        if (timeout <= 0) {
+            return "timeout";
+        }
+        try {
+            return String.valueOf(executeAsyncScript(driver, timeout + SCRIPT_TIMEOUT_MARGIN_MS, SCRIPT,
+                    element != null ? element : false, selector != null ? selector : "", condition.jsName,
+                    argument != null ? argument : "", timeout));
+        } catch (WebDriverException e) {
+            log.debug("MutationObserver wait failed, falling back to polling: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Run async script with the script timeout of the session raised to <code>timeoutInMs</code>, then set it back to
+     * <code>script.timeout</code> of {@link SuiteConfiguration}, as WebDriver can't read the timeout it replaces.
+     * Scripts of the tests keep failing fast instead of inheriting the timeout of the longest wait.
+     */
+    static Object executeAsyncScript(WebDriver driver, long timeoutInMs, String script, Object... args) {
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        timeouts.setScriptTimeout(timeoutInMs, TimeUnit.MILLISECONDS);
+        try {
+            return ((JavascriptExecutor) driver).executeAsyncScript(script, args);
+        } finally {
+            try {
+                timeouts.setScriptTimeout(SuiteConfiguration.get().getDuration("script.timeout").toMillis(),
+                        TimeUnit.MILLISECONDS);
+            } catch (WebDriverException e) {
+                log.debug("Script timeout was not set back: " + e.getMessage());
+            }
+        }
+    }
+
+    private static ConditionTimeoutException timeout(Callable<String> message, Condition condition, int seconds) {
+        String conditionMessage = "Condition " + condition.jsName + " was not fulfilled within "
+                + TimeUnit.SECONDS.toMillis(seconds) + " milliseconds.";
+        try {
+            return new ConditionTimeoutException(message.call() + "\n" + conditionMessage);
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage() + ";\nCondition failed: " + conditionMessage, e.getCause());
+        }
+    }
+
+    /**
+     * Locate PageFactory proxy or other wrapper down to the element which knows its driver
+     */
+    private static WebElement unwrap(WebElement element) {
+        WebElement current = element;
+        while (current instanceof WrapsElement && !(current instanceof WrapsDriver)) {
+            current = ((WrapsElement) current).getWrappedElement();
+        }
+        return current;
+    }
+
+    private static WebElement tryUnwrap(WebElement element) {
+        try {
+            return unwrap(element);
+        } catch (WebDriverException e) {
+            return null;
+        }
+    }
+
+    private static WebDriver driverOf(WebElement element) {
+        return element instanceof WrapsDriver ? ((WrapsDriver) element).getWrappedDriver() : null;
+    }
+
+    /**
+     * @return css equivalent of the locator or null if there is none
+     */
+    static String cssSelector(By by) {
+        String locator = by.toString();
+        int separator = locator.indexOf(": ");
+        if (separator < 0) {
+            return null;
+        }
+        String value = locator.substring(separator + 2);
+        switch (locator.substring(0, separator)) {
+            case "By.cssSelector":
+                return value;
+            case "By.id":
+                return "[id='" + value.replace("'", "\\'") + "']";
+            case "By.name":
+                return "[name='" + value.replace("'", "\\'") + "']";
+            case "By.className":
+                return "." + value.trim();
+            case "By.tagName":
+                return value;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.onlinerautomation.utils;
+
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Local repository of browser driver binaries which resolves drivers without network.
+ * <p>
+ * Repository directory (<code>driver.repository.dir</code> of {@link SuiteConfiguration}, <code>~/.onliner-drivers</code> by default)
+ * contains <code>manifest.properties</code> pinning a version, file and SHA-256 checksum per driver, e.g.
+ * <pre>
+ * chrome.version=2.40
+ * chrome.file=chrome/2.40/chromedriver
+ * chrome.sha256=...
+ * </pre>
+ * Drivers are fetched from the internet only when refresh is requested with <code>driver.repository.refresh=true</code>,
+ * the fetched binary is copied into the repository and pinned in the manifest.
+ */
+@Slf4j
+public class DriverBinaryRepository {
+    private static final String MANIFEST = "manifest.properties";
+    private static final String LATEST = "latest";
+
+    private final Path directory;
+    private final boolean refresh;
+
+    public DriverBinaryRepository() {
+        this(Paths.get(SuiteConfiguration.get().getString("driver.repository.dir")),
+                SuiteConfiguration.get().getBoolean("driver.repository.refresh"));
+    }
+
+    public DriverBinaryRepository(Path directory, boolean refresh) {
+        this.directory = directory;
+        this.refresh = refresh;
+    }
+
+    /**
+     * @param driver  driver name used in manifest, e.g. chrome
+     * @param version requested version, <code>latest</code> or empty accepts any pinned version
+     * @param fetcher configured bonigarcia manager which downloads the driver, called only in refresh mode
+     * @return verified driver binary
+     * @throws IllegalStateException if driver is not in the repository and refresh is not enabled
+     */
+    public Path resolve(String driver, String version, Supplier<io.github.bonigarcia.wdm.WebDriverManager> fetcher) {
+        long start = System.currentTimeMillis();
+        Properties manifest = readManifest();
+        String pinnedVersion = manifest.getProperty(driver + ".version");
+        boolean anyVersion = version == null || version.isEmpty() || LATEST.equals(version);
+
+        if (!refresh && pinnedVersion != null && (anyVersion || version.equals(pinnedVersion))) {
+            Path binary = directory.resolve(manifest.getProperty(driver + ".file"));
+            String expected = manifest.getProperty(driver + ".sha256");
+            if (!Files.isRegularFile(binary)) {
+                throw new IllegalStateException(driver + " driver " + pinnedVersion + " is pinned in " + directory
+                        + " but " + binary + " is missing. Run with -Ddriver.repository.refresh=true to fetch it");
+            }
+            String actual = sha256(binary);
+            if (!actual.equalsIgnoreCase(expected)) {
+                throw new IllegalStateException("Checksum mismatch for " + binary + ": expected " + expected
+                        + ", got " + actual + ". Run with -Ddriver.repository.refresh=true to fetch it again");
+            }
+            log.info(driver + " driver " + pinnedVersion + " resolved from " + binary + " in "
+                    + (System.currentTimeMillis() - start) + "ms");
+            return binary;
+        }
+        if (!refresh) {
+            throw new IllegalStateException(driver + " driver " + (anyVersion ? "" : version + " ") + "is not pinned in "
+                    + directory.resolve(MANIFEST) + ". Run once with -Ddriver.repository.refresh=true to fetch it");
+        }
+        io.github.bonigarcia.wdm.WebDriverManager manager = fetcher.get();
+        manager.setup();
+        return store(driver, manifest, Paths.get(manager.getBinaryPath()), manager.getDownloadedVersion());
+    }
+
+    private Path store(String driver, Properties manifest, Path fetched, String downloadedVersion) {
+        String version = downloadedVersion == null ? LATEST : downloadedVersion;
+        Path relative = Paths.get(driver, version, fetched.getFileName().toString());
+        Path binary = directory.resolve(relative);
+        try {
+            Files.createDirectories(binary.getParent());
+            Files.copy(fetched, binary, StandardCopyOption.REPLACE_EXISTING);
+            binary.toFile().setExecutable(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not copy " + fetched + " to " + binary, e);
+        }
+        manifest.setProperty(driver + ".version", version);
+        manifest.setProperty(driver + ".file", relative.toString().replace('\\', '/'));
+        manifest.setProperty(driver + ".sha256", sha256(binary));
+        writeManifest(manifest);
+        log.info(driver + " driver " + version + " stored in " + binary);
+        return binary;
+    }
+
+    private Properties readManifest() {
+        Properties manifest = new Properties();
+        Path file = directory.resolve(MANIFEST);
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, UTF_8)) {
+                manifest.load(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + file, e);
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Write to a temporary file first, so parallel JVMs never read half written manifest
+     */
+    private void writeManifest(Properties manifest) {
+        Path file = directory.resolve(MANIFEST);
+        try {
+            Path temp = Files.createTempFile(directory, MANIFEST, ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, UTF_8)) {
+                manifest.store(writer, "Pinned browser driver binaries");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+
+    static String sha256(Path file) {
+        try {
+            return com.google.common.io.Files.asByteSource(file.toFile()).hash(Hashing.sha256()).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+    }
+}
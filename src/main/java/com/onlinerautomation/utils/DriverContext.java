@@ -0,0 +1,36 @@
+package com.onlinerautomation.utils;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * WebDriver session of the current test thread. Lets tests, data-provider rows and listeners running in parallel
+ * see only their own browser.
+ */
+public final class DriverContext {
+    private static final ThreadLocal<WebDriver> DRIVER = new ThreadLocal<>();
+
+    private DriverContext() {
+    }
+
+    /**
+     * @return driver of the current thread or null if there is none
+     */
+    public static WebDriver getDriver() {
+        return DRIVER.get();
+    }
+
+    public static void setDriver(WebDriver driver) {
+        DRIVER.set(driver);
+    }
+
+    /**
+     * Forget driver of the current thread
+     *
+     * @return the driver which was bound to the current thread or null
+     */
+    public static WebDriver removeDriver() {
+        WebDriver driver = DRIVER.get();
+        DRIVER.remove();
+        return driver;
+    }
+}
@@ -0,0 +1,281 @@
+package com.onlinerautomation.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+import org.openqa.selenium.internal.WrapsElement;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Base of WebDriver decorators. Driver and everything reached through it (elements, element lists, elements returned by
+ * scripts, <code>switchTo()</code>, <code>navigate()</code>, <code>manage()</code> and their parts) are wrapped into
+ * reflective proxies which pass every call to {@link #invoke(Call)}.
+ * <p>
+ * Decorators stack: each one unwraps only its own proxies from arguments before the call goes on, so the innermost
+ * decorator sees the same commands as the driver. Decorated elements are {@link WrapsDriver} of the decorated driver,
+ * so scripts and waits started from an element go through the whole stack too. Decorated objects are equal to the
+ * objects they wrap.
+ */
+public abstract class DriverDecorator {
+    private static final Set<Class<?>> NESTED_INTERFACES = new HashSet<>(Arrays.asList(WebDriver.TargetLocator.class,
+            WebDriver.Navigation.class, WebDriver.Options.class, WebDriver.Timeouts.class, WebDriver.Window.class));
+    private static final ConcurrentMap<Class<?>, Class<?>[]> interfaces = new ConcurrentHashMap<>();
+
+    /**
+     * @return proxy of the driver which passes its calls and calls of the objects it returns to this decorator
+     */
+    public WebDriver decorate(WebDriver driver) {
+        Handler handler = new Handler(driver, null);
+        WebDriver decorated = (WebDriver) proxy(driver.getClass(), handler, WrapsDriver.class);
+        handler.root = decorated;
+        return decorated;
+    }
+
+    /**
+     * Called for every method of decorated objects except {@link Object} methods and unwrapping
+     *
+     * @return result of the method, {@link Call#proceed()} unless the decorator answers itself
+     */
+    protected Object invoke(Call call) throws Throwable {
+        return call.proceed();
+    }
+
+    /**
+     * @return driver under all decorators
+     */
+    public static WebDriver undecorated(WebDriver driver) {
+        Object current = driver;
+        while (Proxy.isProxyClass(current.getClass()) && Proxy.getInvocationHandler(current) instanceof Handler) {
+            current = ((Handler) Proxy.getInvocationHandler(current)).delegate;
+        }
+        return (WebDriver) current;
+    }
+
+    /**
+     * @return decorator of the given type in the stack of the decorated driver or element, null if there is none
+     */
+    public static <T extends DriverDecorator> T find(Object decorated, Class<T> type) {
+        Object current = decorated;
+        while (current != null && Proxy.isProxyClass(current.getClass())
+                && Proxy.getInvocationHandler(current) instanceof Handler) {
+            Handler handler = (Handler) Proxy.getInvocationHandler(current);
+            if (type.isInstance(handler.decorator())) {
+                return type.cast(handler.decorator());
+            }
+            current = handler.delegate;
+        }
+        return null;
+    }
+
+    private Object proxy(Class<?> type, Handler handler, Class<?>... extra) {
+        return Proxy.newProxyInstance(DriverDecorator.class.getClassLoader(), interfacesOf(type, extra), handler);
+    }
+
+    private static Class<?>[] interfacesOf(Class<?> type, Class<?>... extra) {
+        Class<?>[] own = interfaces.computeIfAbsent(type, t -> {
+            Set<Class<?>> all = new LinkedHashSet<>();
+            for (Class<?> c = t; c != null; c = c.getSuperclass()) {
+                for (Class<?> i : c.getInterfaces()) {
+                    // package-private interfaces of driver internals can't be proxied from here
+                    if (Modifier.isPublic(i.getModifiers())) {
+                        all.add(i);
+                    }
+                }
+            }
+            return all.toArray(new Class<?>[0]);
+        });
+        Set<Class<?>> all = new LinkedHashSet<>(Arrays.asList(own));
+        all.addAll(Arrays.asList(extra));
+        return all.toArray(new Class<?>[0]);
+    }
+
+    private Object wrap(Object result, Method method, WebDriver root) {
+        if (result == null) {
+            return null;
+        } else if (result instanceof WebDriver) {
+            // switchTo().window() and the like return the driver itself
+            return root;
+        } else if (result instanceof WebElement) {
+            Handler handler = new Handler(result, root);
+            return proxy(result.getClass(), handler, WrapsElement.class, WrapsDriver.class);
+        } else if (result instanceof List) {
+            List<Object> wrapped = new ArrayList<>(((List<?>) result).size());
+            for (Object item : (List<?>) result) {
+                wrapped.add(wrap(item, method, root));
+            }
+            return wrapped;
+        } else if (result instanceof Map) {
+            Map<Object, Object> wrapped = new LinkedHashMap<>();
+            ((Map<?, ?>) result).forEach((key, value) -> wrapped.put(key, wrap(value, method, root)));
+            return wrapped;
+        } else if (NESTED_INTERFACES.contains(method.getReturnType())) {
+            return Proxy.newProxyInstance(DriverDecorator.class.getClassLoader(),
+                    new Class<?>[]{method.getReturnType()}, new Handler(result, root));
+        }
+        return result;
+    }
+
+    private Object unwrap(Object value) {
+        if (value == null) {
+            return null;
+        } else if (Proxy.isProxyClass(value.getClass()) && Proxy.getInvocationHandler(value) instanceof Handler
+                && ((Handler) Proxy.getInvocationHandler(value)).decorator() == this) {
+            return ((Handler) Proxy.getInvocationHandler(value)).delegate;
+        } else if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            Object[] unwrapped = (Object[]) Array.newInstance(array.getClass().getComponentType(), array.length);
+            for (int i = 0; i < array.length; i++) {
+                unwrapped[i] = unwrap(array[i]);
+            }
+            return unwrapped;
+        } else if (value instanceof List) {
+            List<Object> unwrapped = new ArrayList<>(((List<?>) value).size());
+            for (Object item : (List<?>) value) {
+                unwrapped.add(unwrap(item));
+            }
+            return unwrapped;
+        } else if (value instanceof Map) {
+            Map<Object, Object> unwrapped = new LinkedHashMap<>();
+            ((Map<?, ?>) value).forEach((key, item) -> unwrapped.put(key, unwrap(item)));
+            return unwrapped;
+        }
+        return value;
+    }
+
+    private final class Handler implements InvocationHandler {
+        private final Object delegate;
+        private WebDriver root;
+
+        Handler(Object delegate, WebDriver root) {
+            this.delegate = delegate;
+            this.root = root;
+        }
+
+        DriverDecorator decorator() {
+            return DriverDecorator.this;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return delegate.equals(unwrap(args[0]));
+                    case "hashCode":
+                        return delegate.hashCode();
+                    default:
+                        return delegate.toString();
+                }
+            } else if (method.getDeclaringClass() == WrapsElement.class) {
+                return delegate;
+            } else if (method.getDeclaringClass() == WrapsDriver.class) {
+                return delegate instanceof WebDriver ? delegate : root;
+            }
+            return DriverDecorator.this.invoke(new Call(this, proxy, method, args));
+        }
+    }
+
+    /**
+     * Method called on a decorated object
+     */
+    public final class Call {
+        private final Handler handler;
+        private final Object target;
+        private final Method method;
+        private final Object[] args;
+
+        private Call(Handler handler, Object target, Method method, Object[] args) {
+            this.handler = handler;
+            this.target = target;
+            this.method = method;
+            this.args = args == null ? new Object[0] : args;
+        }
+
+        /**
+         * @return decorated driver the call belongs to
+         */
+        public WebDriver getDriver() {
+            return handler.root;
+        }
+
+        /**
+         * @return driver this decorator wraps, commands sent to it skip this decorator but pass the inner ones
+         */
+        public WebDriver getWrappedDriver() {
+            return (WebDriver) ((Handler) Proxy.getInvocationHandler(handler.root)).delegate;
+        }
+
+        /**
+         * @return decorated object the method is called on, e.g. element for <code>getText()</code>
+         */
+        public Object getTarget() {
+            return target;
+        }
+
+        /**
+         * @return object the decorated one wraps, e.g. the element of the next decorator or of the driver
+         */
+        public Object getDelegate() {
+            return handler.delegate;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public Object[] getArgs() {
+            return args;
+        }
+
+        /**
+         * @return true if the method is called on an element
+         */
+        public boolean isElementCall() {
+            return handler.delegate instanceof WebElement;
+        }
+
+        /**
+         * Call the method of the wrapped object, results which can be decorated are decorated
+         */
+        public Object proceed() throws Throwable {
+            Object[] unwrapped = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                unwrapped[i] = unwrap(args[i]);
+            }
+            try {
+                return wrap(method.invoke(handler.delegate, unwrapped), method, handler.root);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * @return e.g. <code>WebElement.getAttribute(class)</code>
+         */
+        @Override
+        public String toString() {
+            List<String> arguments = new ArrayList<>();
+            for (Object arg : args) {
+                arguments.add(arg instanceof Object[] ? Arrays.deepToString((Object[]) arg) : String.valueOf(arg));
+            }
+            return method.getDeclaringClass().getSimpleName() + "." + method.getName() + "("
+                    + String.join(", ", arguments) + ")";
+        }
+    }
+}
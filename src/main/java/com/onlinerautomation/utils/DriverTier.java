@@ -0,0 +1,115 @@
+package com.onlinerautomation.utils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.remote.BrowserType;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+
+/**
+ * Kind of session a test runs in: real browser from the suite capabilities or HtmlUnit inside the test JVM.
+ * <p>
+ * Tests which only read the page are marked with {@link HtmlUnitEligible}, {@link Routing} selected with
+ * <code>driver.tier</code> property of {@link SuiteConfiguration} decides where they actually run.
+ */
+public enum DriverTier {
+    BROWSER,
+    HTMLUNIT;
+
+    /**
+     * Test method or all tests of the class don't depend on layout, real events or browser specific behaviour and
+     * may run in HtmlUnit
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.METHOD, ElementType.TYPE})
+    public @interface HtmlUnitEligible {
+    }
+
+    /**
+     * Which tests go to HtmlUnit
+     */
+    public enum Routing {
+        /**
+         * {@link HtmlUnitEligible} tests run in HtmlUnit, the rest in the browser
+         */
+        AUTO,
+        /**
+         * All tests run in the browser
+         */
+        BROWSER,
+        /**
+         * All tests run in HtmlUnit, no browser driver binary is needed
+         */
+        HTMLUNIT;
+
+        /**
+         * @param name auto, browser or htmlunit
+         */
+        public static Routing byName(String name) {
+            switch (name.trim().toLowerCase()) {
+                case "auto":
+                    return AUTO;
+                case "browser":
+                    return BROWSER;
+                case "htmlunit":
+                    return HTMLUNIT;
+                default:
+                    throw new IllegalArgumentException("Unknown driver tier routing [" + name
+                            + "], expected auto, browser or htmlunit");
+            }
+        }
+
+        public DriverTier tierOf(Method testMethod) {
+            switch (this) {
+                case BROWSER:
+                    return DriverTier.BROWSER;
+                case HTMLUNIT:
+                    return DriverTier.HTMLUNIT;
+                case AUTO:
+                default:
+                    return testMethod.isAnnotationPresent(HtmlUnitEligible.class)
+                            || testMethod.getDeclaringClass().isAnnotationPresent(HtmlUnitEligible.class)
+                            ? DriverTier.HTMLUNIT : DriverTier.BROWSER;
+            }
+        }
+
+        /**
+         * @return true if some tests may run in the browser, i.e. its driver binary is needed
+         */
+        public boolean usesBrowser() {
+            return this != HTMLUNIT;
+        }
+    }
+
+    /**
+     * @param browser capabilities of the suite
+     * @return capabilities to lease session of this tier with
+     */
+    public Capabilities capabilities(Capabilities browser) {
+        if (this == BROWSER) {
+            return browser;
+        }
+        DesiredCapabilities htmlUnit = DesiredCapabilities.htmlUnit();
+        htmlUnit.setJavascriptEnabled(true);
+        // HtmlUnit emulates Chrome unless suite runs Firefox or IE
+        String browserName = browser.getBrowserName();
+        htmlUnit.setCapability(CapabilityType.VERSION, BrowserType.FIREFOX.equals(browserName)
+                || BrowserType.IE.equals(browserName) ? browserName : BrowserType.CHROME);
+        // the same traffic rules as the browser, e.g. BlockingProxy
+        if (browser.getCapability(CapabilityType.PROXY) != null) {
+            htmlUnit.setCapability(CapabilityType.PROXY, browser.getCapability(CapabilityType.PROXY));
+        }
+        return htmlUnit;
+    }
+
+    public static DriverTier of(WebDriver driver) {
+        return DriverDecorator.undecorated(driver) instanceof HtmlUnitDriver ? HTMLUNIT : BROWSER;
+    }
+}
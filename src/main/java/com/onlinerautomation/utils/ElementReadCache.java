@@ -0,0 +1,183 @@
+package com.onlinerautomation.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches element reads (<code>isDisplayed</code>, <code>getText</code>, <code>getAttribute</code> and the like) of a
+ * decorated driver while the page doesn't change.
+ * <p>
+ * The browser counts DOM mutations and rendering events of the document (<code>js/dom-generation.js</code>), values
+ * are cached under the count read before them and dropped when it changes. The count is read again before a cached
+ * value is used unless it was read less than <code>element.cache.recheck</code> ago and no other command was sent
+ * since, any command which is not a read (click, navigation, script, switching frames...) may change the page.
+ * So reads repeated right after each other or after a wait cost no round trip, a value changed by the page itself is
+ * seen at most <code>element.cache.recheck</code> late.
+ * <p>
+ * Every read after a command which may change the page costs a generation read, so it pays off for pages read
+ * repeatedly between actions and is off by default. Hit and miss counters of all cached drivers are in
+ * {@link #getStats()}, compare hits with generation checks before turning it on.
+ */
+@Slf4j
+public final class ElementReadCache extends DriverDecorator {
+    private static final String DOM_GENERATION_SCRIPT = Scripts.load("/js/dom-generation.js");
+    private static final Set<String> READS = new HashSet<>(Arrays.asList("isDisplayed", "isEnabled", "isSelected",
+            "getText", "getAttribute", "getCssValue", "getTagName", "getLocation", "getSize", "getRect"));
+    // commands which don't change the page and don't invalidate the generation read before them
+    private static final Set<String> QUERIES = new HashSet<>(Arrays.asList("findElement", "findElements", "getTitle",
+            "getCurrentUrl", "getPageSource", "getWindowHandle", "getWindowHandles", "getScreenshotAs",
+            "getCapabilities", "getSessionId", "getCoordinates", "manage", "timeouts", "implicitlyWait",
+            "setScriptTimeout", "pageLoadTimeout"));
+    private static final int MAX_ENTRIES = 1024;
+    private static final Stats STATS = new Stats();
+
+    private final long recheckNanos;
+    private final Map<List<Object>, Object> values = new HashMap<>();
+    private String generation;
+    private long checkedAt;
+    private boolean changed = true;
+
+    private ElementReadCache(Duration recheck) {
+        this.recheckNanos = recheck.toNanos();
+    }
+
+    /**
+     * @return driver with cached element reads if <code>element.cache</code> is on, the driver itself otherwise
+     */
+    public static WebDriver install(WebDriver driver) {
+        SuiteConfiguration config = SuiteConfiguration.get();
+        return config.getBoolean("element.cache")
+                ? new ElementReadCache(config.getDuration("element.cache.recheck")).decorate(driver) : driver;
+    }
+
+    /**
+     * @return counters of all drivers with cached element reads
+     */
+    public static Stats getStats() {
+        return STATS;
+    }
+
+    @Override
+    protected Object invoke(Call call) throws Throwable {
+        String method = call.getMethod().getName();
+        if (call.isElementCall() && READS.contains(method)) {
+            return read(call);
+        }
+        if (!QUERIES.contains(method)) {
+            synchronized (this) {
+                changed = true;
+            }
+        }
+        return call.proceed();
+    }
+
+    private synchronized Object read(Call call) throws Throwable {
+        String current = currentGeneration(call);
+        if (current == null) {
+            STATS.uncached.increment();
+            return call.proceed();
+        }
+        List<Object> key = Arrays.asList(call.getDelegate(), call.getMethod().getName(),
+                Arrays.asList(call.getArgs()));
+        if (values.containsKey(key)) {
+            STATS.hits.increment();
+            return values.get(key);
+        }
+        STATS.misses.increment();
+        Object value = call.proceed();
+        if (values.size() >= MAX_ENTRIES) {
+            values.clear();
+        }
+        values.put(key, value);
+        return value;
+    }
+
+    /**
+     * @return generation of the page, null if it can't be read, e.g. the browser doesn't run scripts
+     */
+    private String currentGeneration(Call call) {
+        long now = System.nanoTime();
+        if (!changed && generation != null && now - checkedAt < recheckNanos) {
+            return generation;
+        }
+        String current;
+        try {
+            Object result = ((JavascriptExecutor) call.getWrappedDriver()).executeScript(DOM_GENERATION_SCRIPT);
+            current = result == null ? null : result.toString();
+        } catch (WebDriverException | ClassCastException e) {
+            log.debug("Could not read DOM generation: " + e.getMessage());
+            current = null;
+        }
+        STATS.checks.increment();
+        if (current == null || !current.equals(generation)) {
+            values.clear();
+        }
+        generation = current;
+        checkedAt = now;
+        changed = false;
+        return current;
+    }
+
+    /**
+     * Counters of element reads
+     */
+    public static final class Stats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder uncached = new LongAdder();
+        private final LongAdder checks = new LongAdder();
+
+        private Stats() {
+        }
+
+        /**
+         * @return reads answered from the cache
+         */
+        public long getHits() {
+            return hits.sum();
+        }
+
+        /**
+         * @return reads sent to the browser and cached
+         */
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        /**
+         * @return reads sent to the browser because the page generation couldn't be read
+         */
+        public long getUncached() {
+            return uncached.sum();
+        }
+
+        /**
+         * @return page generation reads, each one is a round trip
+         */
+        public long getChecks() {
+            return checks.sum();
+        }
+
+        /**
+         * @return e.g. <code>reads=120, hits=70 (58%), misses=50, uncached=0, generation checks=40</code>
+         */
+        @Override
+        public String toString() {
+            long hits = getHits();
+            long reads = hits + getMisses() + getUncached();
+            return "reads=" + reads + ", hits=" + hits + " (" + (reads == 0 ? 0 : hits * 100 / reads) + "%), misses="
+                    + getMisses() + ", uncached=" + getUncached() + ", generation checks=" + getChecks();
+        }
+    }
+}
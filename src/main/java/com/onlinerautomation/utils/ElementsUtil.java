@@ -6,9 +6,12 @@ import org.hamcrest.FeatureMatcher;
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.interactions.internal.Locatable;
+import org.openqa.selenium.support.pagefactory.internal.LocatingElementHandler;
 import org.openqa.selenium.support.ui.Select;
 import ru.yandex.qatools.htmlelements.element.Named;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
@@ -21,7 +24,7 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class ElementsUtil {
 
-    private static final int DEFAULT_EXPLICIT_WAIT = 30;
+    private static final int DEFAULT_EXPLICIT_WAIT = (int) SuiteConfiguration.get().getWaitTimeout().getSeconds();
 
     private static final Function<Supplier<WebElement>, Boolean> tryElement = r -> Try.of(() -> r.get().isDisplayed()).getOrElse(() -> false);
     private static final String ELEMENT_IS_NOT_CLICKABLE = "Element is not clickable";
@@ -29,6 +32,23 @@ public class ElementsUtil {
     private static final String ELEMENT_NO_CLASS = "Element does not have given class";
     private static final String ELEMENT_IS_NOT_DISPLAYED = "Element is not displayed";
     private static final String ELEMENT_IS_NOT_HIDDEN = "Element is not hidden";
+    private static final String ELEMENT_NO_TEXT = "Element does not contain given text";
+
+    private static final Field PAGE_FACTORY_LOCATOR = pageFactoryLocatorField();
+
+    private static volatile WaitEngine defaultWaitEngine =
+            WaitEngine.byName(SuiteConfiguration.get().getString("elements.wait.engine"));
+
+    /**
+     * Set engine used by waiters which are called without explicit {@link WaitEngine}
+     */
+    public static void setDefaultWaitEngine(WaitEngine waitEngine) {
+        defaultWaitEngine = waitEngine;
+    }
+
+    public static WaitEngine getDefaultWaitEngine() {
+        return defaultWaitEngine;
+    }
 
     // region Accessors
     public static boolean isDisplayed(WebDriver driver, By by) {
@@ -41,7 +61,7 @@ public class ElementsUtil {
 
     public static boolean isDisplayed(WebElement element, int seconds) {
         return Try.of(() -> {
-            waitFor(seconds).until(() -> isDisplayed(element));
+            waitFor(seconds, key(element, "visible")).until(() -> isDisplayed(element));
             return true;
         }).getOrElse(() -> false);
     }
@@ -151,7 +171,7 @@ public class ElementsUtil {
     }
 
     public static void waitForVisible(WebElement element, By childElem, int seconds) {
-        waitFor(seconds)
+        waitFor(seconds, key(element, childElem, "visible"))
                 .withException(() -> addName(element, ELEMENT_IS_NOT_DISPLAYED))
                 .until(() -> isDisplayed((Supplier<WebElement>) element.findElement(childElem)));
     }
@@ -161,7 +181,15 @@ public class ElementsUtil {
     }
 
     public static WebElement waitForVisible(WebElement element, int seconds) {
-        waitFor(seconds)
+        return waitForVisible(element, seconds, defaultWaitEngine);
+    }
+
+    public static WebElement waitForVisible(WebElement element, int seconds, WaitEngine engine) {
+        if (engine == WaitEngine.MUTATION_OBSERVER && DomWaiter.await(element, DomWaiter.Condition.VISIBLE, null, seconds,
+                key(element, "visible"), () -> addName(element, ELEMENT_IS_NOT_DISPLAYED))) {
+            return element;
+        }
+        waitFor(seconds, key(element, "visible"))
                 .withException(() -> addName(element, ELEMENT_IS_NOT_DISPLAYED))
                 .until(() -> isDisplayed(element));
         return element;
@@ -178,13 +206,29 @@ public class ElementsUtil {
 
 
     public static void waitForVisible(WebDriver driver, By by, int seconds) {
-        waitFor(seconds)
+        waitForVisible(driver, by, seconds, defaultWaitEngine);
+    }
+
+    public static void waitForVisible(WebDriver driver, By by, int seconds, WaitEngine engine) {
+        if (engine == WaitEngine.MUTATION_OBSERVER && DomWaiter.await(driver, by, DomWaiter.Condition.VISIBLE, null, seconds,
+                key(by, "visible"), () -> addName(by, ELEMENT_IS_NOT_DISPLAYED))) {
+            return;
+        }
+        waitFor(seconds, key(by, "visible"))
                 .withException(() -> addName(by, ELEMENT_IS_NOT_DISPLAYED))
                 .until(() -> isDisplayed(driver, by));
     }
 
     public static void waitForNotVisible(WebDriver driver, By selector, int seconds) {
-        waitFor(seconds)
+        waitForNotVisible(driver, selector, seconds, defaultWaitEngine);
+    }
+
+    public static void waitForNotVisible(WebDriver driver, By selector, int seconds, WaitEngine engine) {
+        if (engine == WaitEngine.MUTATION_OBSERVER && DomWaiter.await(driver, selector, DomWaiter.Condition.HIDDEN, null, seconds,
+                key(selector, "hidden"), () -> addName(selector, ELEMENT_IS_NOT_DISPLAYED))) {
+            return;
+        }
+        waitFor(seconds, key(selector, "hidden"))
                 .withException(() -> addName(selector, ELEMENT_IS_NOT_DISPLAYED))
                 .until(() -> !isDisplayed(driver, selector));
     }
@@ -194,7 +238,15 @@ public class ElementsUtil {
     }
 
     public static void waitForNotVisible(WebElement element, int seconds) {
-        waitFor(seconds)
+        waitForNotVisible(element, seconds, defaultWaitEngine);
+    }
+
+    public static void waitForNotVisible(WebElement element, int seconds, WaitEngine engine) {
+        if (engine == WaitEngine.MUTATION_OBSERVER && DomWaiter.await(element, DomWaiter.Condition.HIDDEN, null, seconds,
+                key(element, "hidden"), () -> addName(element, ELEMENT_IS_NOT_HIDDEN))) {
+            return;
+        }
+        waitFor(seconds, key(element, "hidden"))
                 .withException(() -> addName(element, ELEMENT_IS_NOT_HIDDEN))
                 .until(() -> !isDisplayed(element));
     }
@@ -204,7 +256,7 @@ public class ElementsUtil {
     }
 
     public static void waitForClickable(WebElement element, By childElem, int seconds) {
-        waitFor(seconds)
+        waitFor(seconds, key(element, childElem, "clickable"))
                 .withException(() -> addName(element, ELEMENT_IS_NOT_CLICKABLE))
                 .until(() -> isClickable(element.findElement(childElem)));
     }
@@ -214,30 +266,76 @@ public class ElementsUtil {
     }
 
     public static WebElement waitForClickable(WebElement element, int seconds) {
-        waitFor(seconds)
+        return waitForClickable(element, seconds, defaultWaitEngine);
+    }
+
+    public static WebElement waitForClickable(WebElement element, int seconds, WaitEngine engine) {
+        if (engine == WaitEngine.MUTATION_OBSERVER && DomWaiter.await(element, DomWaiter.Condition.CLICKABLE, null, seconds,
+                key(element, "clickable"), () -> addName(element, ELEMENT_IS_NOT_CLICKABLE))) {
+            return element;
+        }
+        waitFor(seconds, key(element, "clickable"))
                 .withException(() -> addName(element, ELEMENT_IS_NOT_CLICKABLE))
                 .until(() -> isClickable(element));
         return element;
     }
 
     public static void waitForClickable(WebDriver driver, By by, int seconds) {
-        waitFor(seconds)
+        waitForClickable(driver, by, seconds, defaultWaitEngine);
+    }
+
+    public static void waitForClickable(WebDriver driver, By by, int seconds, WaitEngine engine) {
+        if (engine == WaitEngine.MUTATION_OBSERVER && DomWaiter.await(driver, by, DomWaiter.Condition.CLICKABLE, null, seconds,
+                key(by, "clickable"), () -> addName(by, ELEMENT_IS_NOT_CLICKABLE))) {
+            return;
+        }
+        waitFor(seconds, key(by, "clickable"))
                 .withException(() -> addName(by, ELEMENT_IS_NOT_CLICKABLE))
                 .until(() -> isClickable(driver, by));
     }
 
     public static void waitForClassPresent(String className, WebElement element, int seconds) {
-        waitFor(seconds)
+        waitForClassPresent(className, element, seconds, defaultWaitEngine);
+    }
+
+    public static void waitForClassPresent(String className, WebElement element, int seconds, WaitEngine engine) {
+        if (engine == WaitEngine.MUTATION_OBSERVER && DomWaiter.await(element, DomWaiter.Condition.CLASS_PRESENT, className,
+                seconds, key(element, "class " + className), () -> className + " - " + addName(element, ELEMENT_NO_CLASS))) {
+            return;
+        }
+        waitFor(seconds, key(element, "class " + className))
                 .withException(() -> className + " - " + addName(element, ELEMENT_NO_CLASS))
                 .until(() -> isClassPresent(className, element));
     }
 
     public static void waitForClassNotPresent(String className, WebElement element, int seconds) {
-        waitFor(seconds)
+        waitForClassNotPresent(className, element, seconds, defaultWaitEngine);
+    }
+
+    public static void waitForClassNotPresent(String className, WebElement element, int seconds, WaitEngine engine) {
+        if (engine == WaitEngine.MUTATION_OBSERVER && DomWaiter.await(element, DomWaiter.Condition.CLASS_ABSENT, className,
+                seconds, key(element, "no class " + className), () -> className + " - " + addName(element, ELEMENT_HAS_CLASS))) {
+            return;
+        }
+        waitFor(seconds, key(element, "no class " + className))
                 .withException(() -> className + " - " + addName(element, ELEMENT_HAS_CLASS))
                 .until(() -> !isClassPresent(className, element));
     }
 
+    public static void waitForTextPresent(WebElement element, String text, int seconds) {
+        waitForTextPresent(element, text, seconds, defaultWaitEngine);
+    }
+
+    public static void waitForTextPresent(WebElement element, String text, int seconds, WaitEngine engine) {
+        if (engine == WaitEngine.MUTATION_OBSERVER && DomWaiter.await(element, DomWaiter.Condition.TEXT_PRESENT, text,
+                seconds, key(element, "text " + text), () -> text + " - " + addName(element, ELEMENT_NO_TEXT))) {
+            return;
+        }
+        waitFor(seconds, key(element, "text " + text))
+                .withException(() -> text + " - " + addName(element, ELEMENT_NO_TEXT))
+                .until(() -> isTextPresent(element, text));
+    }
+
 
     /**
      * 3 seconds Waiter for animation to stop
@@ -251,7 +349,7 @@ public class ElementsUtil {
     }
 
     public static WebElement waitFor(WebElement parentElem, By by, int seconds) {
-        return waitFor(seconds)
+        return waitFor(seconds, key(parentElem, by, "present"))
                 .withException("WebElement with selector [" + by + "] did not appear in " + seconds + "s")
                 .untilGot(() -> parentElem.findElement(by));
     }
@@ -263,7 +361,7 @@ public class ElementsUtil {
     }
 
     public static WebElement waitFor(WebDriver driver, By by, int seconds) {
-        return waitFor(seconds)
+        return waitFor(seconds, key(by, "present"))
                 .withException("WebElement with selector [" + by + "] did not appear in " + seconds + "s")
                 .untilGot(() -> driver.findElement(by));
     }
@@ -374,8 +472,61 @@ public class ElementsUtil {
     }
 
     private static Await waitFor(int seconds) {
-        return Await.waitFor(seconds)
+        return waitFor(seconds, null);
+    }
+
+    private static Await waitFor(int seconds, String key) {
+        return Await.waitFor(seconds, key)
                 .ignoreException(StaleElementReferenceException.class)
                 .ignoreException(NoSuchElementException.class);
     }
+
+    /**
+     * Build {@link Await} history key from element locator without calling the browser. {@link Named} elements give
+     * their name, PageFactory proxies would locate the element to print it, so their locator is read from the proxy.
+     * Generated bindings print their locator, found elements print session id first which is cut off.
+     */
+    static String key(WebElement element, String condition) {
+        String locator;
+        if (element instanceof Named) {
+            locator = ((Named) element).getName();
+        } else if (Proxy.isProxyClass(element.getClass())
+                && Proxy.getInvocationHandler(element) instanceof LocatingElementHandler) {
+            locator = pageFactoryLocator((LocatingElementHandler) Proxy.getInvocationHandler(element));
+        } else {
+            locator = String.valueOf(element);
+            int sessionEnd = locator.indexOf(" -> ");
+            locator = sessionEnd < 0 ? locator : locator.substring(sessionEnd + 4);
+        }
+        return condition + ": " + locator;
+    }
+
+    private static Field pageFactoryLocatorField() {
+        try {
+            Field field = LocatingElementHandler.class.getDeclaredField("locator");
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Selenium PageFactory has changed, keys of its elements can't be built", e);
+        }
+    }
+
+    /**
+     * PageFactory keeps the locator of its proxy private, it is read the same way for every proxy
+     */
+    private static String pageFactoryLocator(LocatingElementHandler handler) {
+        try {
+            return String.valueOf(PAGE_FACTORY_LOCATOR.get(handler));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Locator of PageFactory element can't be read", e);
+        }
+    }
+
+    static String key(WebElement parentElement, By by, String condition) {
+        return key(parentElement, condition) + " >> " + by;
+    }
+
+    static String key(By by, String condition) {
+        return condition + ": " + by;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,365 @@
+package com.onlinerautomation.utils;
+
+import org.awaitility.Duration;
+import org.awaitility.core.ConditionTimeoutException;
+import org.awaitility.core.DeadlockException;
+import org.awaitility.core.ExceptionIgnorer;
+import org.awaitility.core.ThrowingRunnable;
+import org.awaitility.pollinterval.FixedPollInterval;
+import org.awaitility.pollinterval.PollInterval;
+import org.awaitility.spi.Timeout;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates {@link Await} conditions on the waiting thread, see {@link AwaitEngine#IN_THREAD}.
+ * <p>
+ * Timing and messages are the ones of Awaitility 3 condition awaiter: poll delay, then evaluation and poll interval
+ * sleep until condition holds or timeout is over, a sleep never goes past the timeout, {@link Duration#FOREVER} waits
+ * until the condition holds. Ignored exceptions are a mismatch, the last one becomes the cause of the timeout exception,
+ * other exceptions are rethrown as is. Unlike Awaitility a condition which hangs is not abandoned at the timeout and
+ * uncaught exceptions of other threads are not watched.
+ * <p>
+ * Polling loop allocates nothing with {@link FixedPollInterval} and {@link BackoffPollInterval}, other poll intervals
+ * give a new {@link Duration} each poll. One awaiter serves one wait.
+ */
+final class InThreadAwaiter {
+    private static final Duration DEFAULT_TIMEOUT = Duration.TEN_SECONDS;
+    private static final PollInterval DEFAULT_POLL_INTERVAL = new FixedPollInterval(Duration.ONE_HUNDRED_MILLISECONDS);
+    private static final String LAMBDA_CLASS_NAME = "$$Lambda$";
+    private static final String LAMBDA_METHOD_NAME = "$Lambda";
+
+    private final Duration atMost;
+    private final Duration atLeast;
+    private final Duration pollDelay;
+    private final PollInterval pollInterval;
+    private final ExceptionIgnorer exceptionIgnorer;
+
+    private int polls;
+    private int staleIgnored;
+    private int noSuchIgnored;
+
+    /**
+     * @param atMost      timeout or null for Awaitility default
+     * @param atLeast     minimal evaluation time or null
+     * @param pollDelay   explicitly defined poll delay or null
+     * @param pollInterval poll interval or null for Awaitility default
+     */
+    InThreadAwaiter(Duration atMost, Duration atLeast, Duration pollDelay, PollInterval pollInterval,
+                    ExceptionIgnorer exceptionIgnorer) {
+        this.atMost = atMost == null ? DEFAULT_TIMEOUT : atMost;
+        this.atLeast = atLeast == null ? Duration.ZERO : atLeast;
+        this.pollInterval = pollInterval == null ? DEFAULT_POLL_INTERVAL : pollInterval;
+        this.pollDelay = definePollDelay(pollDelay, this.pollInterval);
+        this.exceptionIgnorer = exceptionIgnorer;
+        if (this.pollDelay.isForever()) {
+            throw new IllegalArgumentException("Cannot delay polling forever");
+        }
+        if (!this.atMost.isForever() && this.atMost.getValueInMS() <= this.pollDelay.getValueInMS()) {
+            throw new IllegalStateException(String.format("Timeout (%s %s) must be greater than the poll delay (%s %s).",
+                    this.atMost.getValue(), this.atMost.getTimeUnitAsString(), this.pollDelay.getValue(),
+                    this.pollDelay.getTimeUnitAsString()));
+        }
+    }
+
+    /**
+     * Awaitility rule: poll delay not defined explicitly is the interval for fixed poll interval and zero otherwise
+     */
+    static Duration definePollDelay(Duration pollDelay, PollInterval pollInterval) {
+        if (pollDelay != null) {
+            return pollDelay;
+        }
+        return pollInterval instanceof FixedPollInterval ? pollInterval.next(1, Duration.ZERO) : Duration.ZERO;
+    }
+
+    int getPolls() {
+        return polls;
+    }
+
+    int getStaleIgnored() {
+        return staleIgnored;
+    }
+
+    int getNoSuchIgnored() {
+        return noSuchIgnored;
+    }
+
+    void until(Callable<Boolean> condition) {
+        await(new Evaluation() {
+            @Override
+            boolean evaluate() throws Exception {
+                return condition.call();
+            }
+
+            @Override
+            String timeoutMessage() {
+                return callableTimeoutMessage(condition);
+            }
+        });
+    }
+
+    <T> T until(Callable<T> supplier, Matcher<? super T> matcher) {
+        if (supplier == null) {
+            throw new IllegalArgumentException("You must specify a supplier (was null).");
+        }
+        if (matcher == null) {
+            throw new IllegalArgumentException("You must specify a matcher (was null).");
+        }
+        HamcrestEvaluation<T> evaluation = new HamcrestEvaluation<>(supplier, matcher);
+        await(evaluation);
+        return evaluation.lastResult;
+    }
+
+    void untilAsserted(ThrowingRunnable assertion) {
+        if (assertion == null) {
+            throw new IllegalArgumentException("You must specify a supplier (was null).");
+        }
+        await(new Evaluation() {
+            private String lastExceptionMessage;
+
+            @Override
+            boolean evaluate() throws Throwable {
+                try {
+                    assertion.run();
+                    return true;
+                } catch (AssertionError e) {
+                    lastExceptionMessage = e.getMessage();
+                    trace = e;
+                    return false;
+                }
+            }
+
+            @Override
+            String timeoutMessage() {
+                return assertionTimeoutMessage(assertion, lastExceptionMessage);
+            }
+        });
+    }
+
+    private void await(Evaluation evaluation) {
+        // FOREVER is -1 ms
+        long maxInMs = atMost.isForever() ? Long.MAX_VALUE : atMost.getValueInMS();
+        long fixedIntervalInMs = pollInterval instanceof FixedPollInterval
+                ? pollInterval.next(1, pollDelay).getValueInMS() : -1;
+        BackoffPollInterval backoff = pollInterval instanceof BackoffPollInterval
+                ? (BackoffPollInterval) pollInterval : null;
+        Duration interval = pollDelay;
+        long intervalInMs = pollDelay.getValueInMS();
+        Throwable failure = null;
+        Throwable trace = null;
+        long start = System.nanoTime();
+        long elapsedInMs = 0;
+        try {
+            if (!pollDelay.isZero()) {
+                Thread.sleep(intervalInMs);
+            }
+            while (maxInMs > elapsedInMs) {
+                polls++;
+                evaluation.trace = null;
+                try {
+                    if (evaluation.evaluate()) {
+                        trace = null;
+                        break;
+                    }
+                    trace = evaluation.trace;
+                } catch (Throwable e) {
+                    if (!exceptionIgnorer.shouldIgnoreException(e)) {
+                        failure = e;
+                        break;
+                    }
+                    countIgnored(e);
+                    trace = e;
+                }
+                if (fixedIntervalInMs >= 0) {
+                    intervalInMs = fixedIntervalInMs;
+                } else if (backoff != null) {
+                    intervalInMs = backoff.nextInMs(polls, intervalInMs);
+                } else {
+                    interval = pollInterval.next(polls, interval);
+                    intervalInMs = interval.getValueInMS();
+                }
+                // the last sleep ends at the timeout instead of overrunning it by up to an interval
+                long remainingInMs = maxInMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                if (remainingInMs > 0) {
+                    Thread.sleep(Math.min(intervalInMs, remainingInMs));
+                }
+                elapsedInMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        }
+        long elapsedInNs = System.nanoTime() - start;
+        if (failure != null) {
+            throw InThreadAwaiter.<RuntimeException>rethrow(failure);
+        } else if (maxInMs <= TimeUnit.NANOSECONDS.toMillis(elapsedInNs)) {
+            throw timeout(String.format("%s within %s %s.", evaluation.timeoutMessage(), atMost.getValue(),
+                    atMost.getTimeUnitAsString()), trace);
+        } else if (TimeUnit.NANOSECONDS.toMillis(elapsedInNs) < atLeast.getValueInMS()) {
+            throw new ConditionTimeoutException(String.format("Condition was evaluated in %s %s which is earlier than "
+                    + "expected minimum timeout %s %s", elapsedInNs, TimeUnit.NANOSECONDS, atLeast.getValue(),
+                    atLeast.getTimeUnit()));
+        }
+    }
+
+    private void countIgnored(Throwable e) {
+        if (e instanceof StaleElementReferenceException) {
+            staleIgnored++;
+        } else if (e instanceof NoSuchElementException) {
+            noSuchIgnored++;
+        }
+    }
+
+    private static ConditionTimeoutException timeout(String message, Throwable trace) {
+        Throwable cause = trace;
+        try {
+            long[] threadIds = ManagementFactory.getThreadMXBean().findDeadlockedThreads();
+            if (threadIds != null) {
+                cause = new DeadlockException(threadIds);
+            }
+        } catch (UnsupportedOperationException ignored) {
+            // deadlock detection is not supported by the VM
+        }
+        return new ConditionTimeoutException(message, cause);
+    }
+
+    /**
+     * Rethrow condition exception unchanged like Awaitility does, checked ones included
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E rethrow(Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+
+    private static String callableTimeoutMessage(Callable<Boolean> condition) {
+        if (Timeout.timeout_message != null) {
+            return Timeout.timeout_message;
+        }
+        Class<?> type = condition.getClass();
+        Method enclosingMethod = type.getEnclosingMethod();
+        if (type.isAnonymousClass() && enclosingMethod != null) {
+            return String.format("Condition returned by method \"%s\" in class %s was not fulfilled",
+                    enclosingMethod.getName(), enclosingMethod.getDeclaringClass().getName());
+        }
+        return String.format("Condition %s was not fulfilled",
+                isLambdaClass(type) ? "with " + lambdaDescription(type, false) : type.getName());
+    }
+
+    private static String assertionTimeoutMessage(ThrowingRunnable assertion, String exceptionMessage) {
+        if (exceptionMessage != null && exceptionMessage.endsWith(".")) {
+            exceptionMessage = exceptionMessage.substring(0, exceptionMessage.length() - 1);
+        }
+        Method enclosingMethod = null;
+        try {
+            enclosingMethod = assertion.getClass().getEnclosingMethod();
+        } catch (Error ignored) {
+            // the same as Awaitility, enclosing method is only a part of the message
+        }
+        String methodDescription = enclosingMethod == null ? "" : " defined in " + enclosingMethod;
+        String prefix = isLambdaClass(assertion.getClass())
+                ? "Assertion condition defined as a " + lambdaDescription(assertion.getClass(), false) + methodDescription
+                : "Assertion condition" + methodDescription;
+        return prefix + " " + exceptionMessage;
+    }
+
+    private static boolean isLambdaClass(Class<?> type) {
+        return type.getSimpleName().contains(LAMBDA_CLASS_NAME);
+    }
+
+    /**
+     * The same description of a lambda Awaitility gives, quirks included
+     */
+    private static String lambdaDescription(Class<?> lambdaClass, boolean capitalizedWithColon) {
+        String name = lambdaClass.getName();
+        String nameWithoutLambda = name.substring(0, name.indexOf(LAMBDA_CLASS_NAME));
+        Method lambdaMethod = null;
+        for (Method method : lambdaClass.getDeclaredMethods()) {
+            if (method.getName().contains(LAMBDA_METHOD_NAME)) {
+                lambdaMethod = method;
+                break;
+            }
+        }
+        if (lambdaMethod == null || lambdaMethod.getParameterTypes().length == 0) {
+            return nameWithoutLambda;
+        }
+        Class<?>[] params = lambdaMethod.getParameterTypes();
+        StringBuilder description = new StringBuilder(capitalizedWithColon ? "L" : "l")
+                .append("ambda expression in ").append(nameWithoutLambda);
+        if (nameWithoutLambda.equals(params[0].getName())) {
+            if (capitalizedWithColon) {
+                description.append(':');
+            }
+        } else {
+            description.append(" that uses ");
+            for (int i = 0; i < params.length; i++) {
+                description.append(params[i].getName());
+                if (i + 1 == params.length) {
+                    if (capitalizedWithColon) {
+                        description.append(':');
+                    }
+                } else {
+                    description.append(", ").append(params[i].getName());
+                }
+            }
+        }
+        return description.toString();
+    }
+
+    private abstract static class Evaluation {
+        /**
+         * Cause of the timeout exception if the last evaluation is a mismatch
+         */
+        Throwable trace;
+
+        abstract boolean evaluate() throws Throwable;
+
+        abstract String timeoutMessage();
+    }
+
+    private static class HamcrestEvaluation<T> extends Evaluation {
+        private final Callable<T> supplier;
+        private final Matcher<? super T> matcher;
+        private T lastResult;
+
+        HamcrestEvaluation(Callable<T> supplier, Matcher<? super T> matcher) {
+            this.supplier = supplier;
+            this.matcher = matcher;
+        }
+
+        @Override
+        boolean evaluate() throws Exception {
+            lastResult = supplier.call();
+            return matcher.matches(lastResult);
+        }
+
+        @Override
+        String timeoutMessage() {
+            Description mismatchDescription = new StringDescription();
+            matcher.describeMismatch(lastResult, mismatchDescription);
+            if (mismatchDescription.toString().isEmpty()) {
+                mismatchDescription.appendText("was ").appendValue(lastResult);
+            }
+            return String.format("%s expected %s but %s", callableDescription(),
+                    matcher.toString().replaceAll("not not ", "").replaceAll("is ", ""), mismatchDescription);
+        }
+
+        private String callableDescription() {
+            Class<?> type = supplier.getClass();
+            Method enclosingMethod = type.getEnclosingMethod();
+            if (type.isAnonymousClass() && enclosingMethod != null) {
+                return enclosingMethod.getDeclaringClass().getName() + "." + enclosingMethod.getName() + " Callable";
+            } else if (isLambdaClass(type)) {
+                return lambdaDescription(type, true);
+            }
+            return type.getName();
+        }
+    }
+}
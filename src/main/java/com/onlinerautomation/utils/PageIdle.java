@@ -0,0 +1,111 @@
+package com.onlinerautomation.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits until the page settles after navigation or an action: document loaded, no XHR or fetch request in flight and
+ * neither requests nor DOM changed for <code>page.idle.quiet</code> (300 ms by default) of {@link SuiteConfiguration}.
+ * <p>
+ * Requests and DOM changes are tracked by a script installed into the document with {@link #track(WebDriver)} or by the
+ * first wait, requests the page started before that are covered only by the quiet window. Page which doesn't settle
+ * within <code>page.idle.timeout</code> is logged rather than failed, the checks after the wait have their own waits.
+ * Tabs of a shared session ({@link TabBound}) check the page every 100 ms instead of waiting in one
+ * script, which would hold the session from the other tabs. Waits are reported to {@link WaitStats} as <code>page idle</code>.
+ */
+@Slf4j
+public final class PageIdle {
+    private static final String SCRIPT = Scripts.load("/js/page-idle.js");
+    private static final String KEY = "page idle";
+    private static final long SCRIPT_TIMEOUT_MARGIN_MS = 5000;
+    // a document replaced by navigation fails the script, the wait goes on in the new one
+    private static final int MAX_SCRIPTS = 3;
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private PageIdle() {
+    }
+
+    /**
+     * Start tracking the current document, so the next wait sees requests and DOM changes of the actions in between
+     */
+    public static void track(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return;
+        }
+        try {
+            ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT, false, 0, 0, 0);
+        } catch (WebDriverException e) {
+            log.debug("Page activity tracking failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Wait with <code>page.idle.quiet</code> and <code>page.idle.timeout</code> of {@link SuiteConfiguration}
+     *
+     * @return true if the page settled in time
+     */
+    public static boolean await(WebDriver driver) {
+        SuiteConfiguration config = SuiteConfiguration.get();
+        return await(driver, config.getDuration("page.idle.quiet"), config.getDuration("page.idle.timeout"));
+    }
+
+    /**
+     * @return true if the page settled in time, drivers which can't run scripts are always settled
+     */
+    public static boolean await(WebDriver driver, Duration quiet, Duration timeout) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return true;
+        }
+        long start = System.nanoTime();
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        int scripts = 0;
+        String result = "not checked";
+        boolean poll = TabBound.isBound(driver);
+        while ((poll || scripts < MAX_SCRIPTS) && System.currentTimeMillis() < deadline) {
+            long left = deadline - System.currentTimeMillis();
+            if (poll && scripts > 0) {
+                sleep(Math.min(POLL_INTERVAL_MS, left));
+            }
+            scripts++;
+            try {
+                if (poll) {
+                    // quiet window counts from the first check, not from this one
+                    long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    result = String.valueOf(((JavascriptExecutor) driver)
+                            .executeAsyncScript(SCRIPT, true, quiet.toMillis(), 0, waited));
+                    if ("ok".equals(result)) {
+                        break;
+                    }
+                } else {
+                    result = String.valueOf(DomWaiter.executeAsyncScript(driver, left + SCRIPT_TIMEOUT_MARGIN_MS,
+                            SCRIPT, true, quiet.toMillis(), left, 0));
+                    break;
+                }
+            } catch (WebDriverException e) {
+                log.debug("Page idle wait was interrupted: " + e.getMessage());
+                result = "script failed: " + e.getMessage().split("\n")[0];
+            }
+        }
+        boolean idle = "ok".equals(result);
+        WaitStats.record(KEY, WaitEngine.MUTATION_OBSERVER, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                scripts, 0, 0, idle ? WaitRecord.Outcome.FULFILLED : WaitRecord.Outcome.TIMEOUT);
+        if (!idle) {
+            log.warn("Page did not settle within " + timeout.toMillis() + "ms: " + result);
+        }
+        return idle;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Page idle wait was interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.onlinerautomation.utils;
+
+import org.awaitility.Duration;
+import org.awaitility.pollinterval.FixedPollInterval;
+import org.awaitility.pollinterval.PollInterval;
+
+import java.nio.file.Paths;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Built-in {@link PollStrategy} implementations
+ * <ul>
+ * <li><b>fixed</b> - legacy fixed interval picked from the timeout: 200/300/500/1000 ms</li>
+ * <li><b>backoff</b> - immediate first poll, then 50 ms growing by 1.5 up to the legacy interval</li>
+ * <li><b>learning</b> - backoff tuned per key by the history of previous waits</li>
+ * </ul>
+ * Default strategy of {@link Await} is chosen by <code>await.poll.strategy</code> of {@link SuiteConfiguration}.
+ */
+public final class PollStrategies {
+    static final long INITIAL_INTERVAL_MS = 50;
+    static final double BACKOFF_FACTOR = 1.5;
+
+    private PollStrategies() {
+    }
+
+    public static PollStrategy fixed() {
+        return (key, timeoutInMs) -> new FixedPollInterval(new Duration(legacyInterval(timeoutInMs), MILLISECONDS));
+    }
+
+    public static PollStrategy backoff() {
+        return (key, timeoutInMs) -> new BackoffPollInterval(INITIAL_INTERVAL_MS, BACKOFF_FACTOR, legacyInterval(timeoutInMs));
+    }
+
+    /**
+     * Learning strategy which keeps its history in memory only
+     */
+    public static PollStrategy learning() {
+        return new LearningPollStrategy(new WaitHistory(), SuiteConfiguration.get().getBoolean("await.learn.timeout"));
+    }
+
+    /**
+     * @param name fixed, backoff or learning
+     * @return the strategy, learning one loads and saves history to <code>await.history.file</code> if it is set
+     */
+    public static PollStrategy byName(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "fixed":
+                return fixed();
+            case "backoff":
+                return backoff();
+            case "learning":
+                String historyFile = SuiteConfiguration.get().getProperty("await.history.file");
+                if (historyFile == null || historyFile.isEmpty()) {
+                    return learning();
+                }
+                WaitHistory history = new WaitHistory();
+                history.load(Paths.get(historyFile));
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> history.save(Paths.get(historyFile))));
+                return new LearningPollStrategy(history, SuiteConfiguration.get().getBoolean("await.learn.timeout"));
+            default:
+                throw new IllegalArgumentException("Unknown poll strategy [" + name + "], expected fixed, backoff or learning");
+        }
+    }
+
+    static long legacyInterval(long timeoutInMs) {
+        if (timeoutInMs >= 10000) {
+            return 1000;
+        } else if (timeoutInMs > 3000) {
+            return 500;
+        } else if (timeoutInMs > 1000) {
+            return 300;
+        }
+        return 200;
+    }
+
+    /**
+     * Polls densely around the median time previous waits on the same key took.
+     * With <code>learnTimeout</code> enabled also shrinks the timeout to a multiple of the slowest observed wait,
+     * the history of a key is dropped as soon as such shortened wait fails, so next wait gets the full timeout.
+     */
+    static class LearningPollStrategy implements PollStrategy {
+        static final int MIN_SAMPLES = 3;
+        static final long MIN_LEARNED_TIMEOUT_MS = 2000;
+        static final int TIMEOUT_MULTIPLIER = 3;
+
+        private final WaitHistory history;
+        private final boolean learnTimeout;
+
+        LearningPollStrategy(WaitHistory history, boolean learnTimeout) {
+            this.history = history;
+            this.learnTimeout = learnTimeout;
+        }
+
+        @Override
+        public PollInterval pollInterval(String key, long timeoutInMs) {
+            long cap = legacyInterval(timeoutInMs);
+            if (key == null || history.count(key) < MIN_SAMPLES) {
+                return new BackoffPollInterval(INITIAL_INTERVAL_MS, BACKOFF_FACTOR, cap);
+            }
+            long median = history.percentile(key, 0.5);
+            long spread = history.percentile(key, 0.9) - history.percentile(key, 0.1);
+            long step = Math.max(20, Math.min(INITIAL_INTERVAL_MS, spread / 4));
+            return new BackoffPollInterval(Math.max(step, median - step), step, BACKOFF_FACTOR, cap);
+        }
+
+        @Override
+        public long timeout(String key, long timeoutInMs) {
+            if (!learnTimeout || key == null || history.count(key) < MIN_SAMPLES) {
+                return timeoutInMs;
+            }
+            long learned = Math.max(MIN_LEARNED_TIMEOUT_MS, history.percentile(key, 1) * TIMEOUT_MULTIPLIER);
+            return Math.min(timeoutInMs, learned);
+        }
+
+        @Override
+        public void record(String key, long elapsedInMs, boolean fulfilled) {
+            if (key == null) {
+                return;
+            }
+            if (fulfilled) {
+                history.record(key, elapsedInMs);
+            } else {
+                history.forget(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.onlinerautomation.utils;
+
+import org.awaitility.pollinterval.PollInterval;
+
+/**
+ * Decides how often and how long {@link Await} polls a condition.
+ * <p>
+ * The <code>key</code> identifies what is awaited (usually a locator plus a condition name, see {@link ElementsUtil}),
+ * it is <code>null</code> for anonymous waits. Strategies may use finished waits reported to
+ * {@link #record(String, long, boolean)} to tune subsequent waits on the same key.
+ *
+ * @see PollStrategies
+ */
+public interface PollStrategy {
+
+    /**
+     * @param key         what is awaited, may be <code>null</code>
+     * @param timeoutInMs requested timeout in milliseconds
+     * @return poll interval to use for the wait
+     */
+    PollInterval pollInterval(String key, long timeoutInMs);
+
+    /**
+     * @param key         what is awaited, may be <code>null</code>
+     * @param timeoutInMs requested timeout in milliseconds
+     * @return timeout to use for the wait, never greater than the requested one
+     */
+    default long timeout(String key, long timeoutInMs) {
+        return timeoutInMs;
+    }
+
+    /**
+     * Report the result of a finished wait
+     *
+     * @param key         what was awaited, may be <code>null</code>
+     * @param elapsedInMs how long the wait took
+     * @param fulfilled   true if condition was met, false on timeout
+     */
+    default void record(String key, long elapsedInMs, boolean fulfilled) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.onlinerautomation.utils;
+
+import com.google.common.io.Resources;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Loads browser-side scripts kept in <code>src/main/resources/js</code>
+ */
+public final class Scripts {
+
+    private Scripts() {
+    }
+
+    /**
+     * @param resource classpath resource, e.g. /js/dom-wait.js
+     * @return script source
+     */
+    public static String load(String resource) {
+        try {
+            return Resources.toString(Scripts.class.getResource(resource), UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.onlinerautomation.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import ru.stqa.selenium.factory.DefaultLocalDriverProvider;
+import ru.stqa.selenium.factory.LocalDriverProvider;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Pool of browser sessions which are reused between tests.
+ * <p>
+ * Sessions are leased by capabilities, every capabilities set has its own idle queue and capacity limit, so leases
+ * of different browsers never wait for each other. Released session is reset (extra windows closed, cookies and
+ * web storage of the current origin cleared, window maximized, about:blank opened) and returned to the idle queue.
+ * Session is quit after <code>maxUses</code> leases, when reset fails or when health probe before lease fails.
+ * <p>
+ * Default pool is configured with <code>session.pool.max.size</code> (sessions per capabilities, 4 by default) and
+ * <code>session.pool.max.uses</code> (leases per session, 20 by default) of {@link SuiteConfiguration}.
+ */
+@Slf4j
+public class SessionPool {
+    public static final SessionPool DEFAULT = new SessionPool(new DefaultLocalDriverProvider(),
+            SuiteConfiguration.get().getSessionPoolMaxSize(), SuiteConfiguration.get().getInt("session.pool.max.uses"));
+
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+
+    private final LocalDriverProvider driverProvider;
+    private final int maxSize;
+    private final int maxUses;
+    private final ConcurrentMap<Map<String, ?>, Slot> slots = new ConcurrentHashMap<>();
+    private final ConcurrentMap<WebDriver, Session> leased = new ConcurrentHashMap<>();
+    private final LeaseStats stats = new LeaseStats();
+
+    public SessionPool(LocalDriverProvider driverProvider, int maxSize, int maxUses) {
+        this.driverProvider = driverProvider;
+        this.maxSize = maxSize;
+        this.maxUses = maxUses;
+    }
+
+    /**
+     * Get idle healthy session with given capabilities or start a new one. Blocks while all sessions of these
+     * capabilities are leased and the pool is at capacity.
+     */
+    public WebDriver lease(Capabilities capabilities) {
+        long start = System.nanoTime();
+        Slot slot = slots.computeIfAbsent(key(capabilities), k -> new Slot(capabilities));
+        slot.capacity.acquireUninterruptibly();
+        Session session = null;
+        try {
+            while ((session = slot.idle.pollFirst()) != null) {
+                if (isHealthy(session)) {
+                    stats.reused.incrementAndGet();
+                    break;
+                }
+                stats.evictedUnhealthy.incrementAndGet();
+                quit(session);
+            }
+            if (session == null) {
+                session = new Session(slot, driverProvider.createDriver(capabilities));
+                stats.created.incrementAndGet();
+                session.driver.manage().window().maximize();
+            }
+            session.uses++;
+            leased.put(session.driver, session);
+            stats.recordWait(System.nanoTime() - start);
+            return session.driver;
+        } catch (RuntimeException | Error e) {
+            // the session is neither idle nor leased, nobody else would quit it
+            if (session != null && !leased.containsKey(session.driver)) {
+                quit(session);
+            }
+            slot.capacity.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Reset the session and make it available for next lease, or quit it if it was used <code>maxUses</code> times
+     */
+    public void release(WebDriver driver) {
+        Session session = leased.remove(driver);
+        if (session == null) {
+            log.warn("Released WebDriver is not leased from the pool, quitting it");
+            quitQuietly(driver);
+            return;
+        }
+        try {
+            if (session.uses >= maxUses) {
+                stats.evictedUsedUp.incrementAndGet();
+                quit(session);
+            } else if (reset(session)) {
+                session.slot.idle.offerFirst(session);
+            } else {
+                stats.evictedUnhealthy.incrementAndGet();
+                quit(session);
+            }
+        } finally {
+            session.slot.capacity.release();
+        }
+    }
+
+    /**
+     * Quit leased session without returning it to the pool, e.g. when its state can't be trusted anymore
+     */
+    public void dismiss(WebDriver driver) {
+        Session session = leased.remove(driver);
+        quitQuietly(driver);
+        if (session != null) {
+            session.slot.capacity.release();
+        }
+    }
+
+    /**
+     * Quit all idle sessions and sessions which were never released, e.g. at the end of suite
+     */
+    public void dismissAll() {
+        for (Slot slot : slots.values()) {
+            Session session;
+            while ((session = slot.idle.pollFirst()) != null) {
+                quit(session);
+            }
+        }
+        leased.keySet().forEach(this::dismiss);
+    }
+
+    public LeaseStats getLeaseStats() {
+        return stats;
+    }
+
+    private boolean isHealthy(Session session) {
+        try {
+            session.driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            log.info("Session failed health probe: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean reset(Session session) {
+        WebDriver driver = session.driver;
+        try {
+            Set<String> handles = driver.getWindowHandles();
+            String main = handles.iterator().next();
+            for (String handle : handles) {
+                if (!handle.equals(main)) {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(main);
+            driver.manage().deleteAllCookies();
+            if (driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+            }
+            driver.manage().window().maximize();
+            driver.get("about:blank");
+            return true;
+        } catch (WebDriverException e) {
+            log.info("Session reset failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void quit(Session session) {
+        quitQuietly(session.driver);
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            log.debug("WebDriver quit failed: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, ?> key(Capabilities capabilities) {
+        return Collections.unmodifiableMap(new HashMap<>(capabilities.asMap()));
+    }
+
+    private class Slot {
+        private final ConcurrentLinkedDeque<Session> idle = new ConcurrentLinkedDeque<>();
+        private final Semaphore capacity;
+
+        Slot(Capabilities capabilities) {
+            capacity = new Semaphore(maxSize, true);
+            log.info("Session pool for " + capabilities.getBrowserName() + ": up to " + maxSize + " sessions, "
+                    + maxUses + " uses each");
+        }
+    }
+
+    private static class Session {
+        private final Slot slot;
+        private final WebDriver driver;
+        private int uses;
+
+        Session(Slot slot, WebDriver driver) {
+            this.slot = slot;
+            this.driver = driver;
+        }
+    }
+
+    /**
+     * Lease counters and wait times, wait time includes health probe and browser start for new sessions
+     */
+    public static class LeaseStats {
+        private final AtomicLong leases = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong reused = new AtomicLong();
+        private final AtomicLong evictedUnhealthy = new AtomicLong();
+        private final AtomicLong evictedUsedUp = new AtomicLong();
+
+        private void recordWait(long nanos) {
+            leases.incrementAndGet();
+            totalWaitNanos.addAndGet(nanos);
+            maxWaitNanos.accumulate(nanos);
+        }
+
+        public long getLeases() {
+            return leases.get();
+        }
+
+        public long getAverageWaitMillis() {
+            long count = leases.get();
+            return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / count);
+        }
+
+        public long getMaxWaitMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+        }
+
+        public long getCreated() {
+            return created.get();
+        }
+
+        public long getReused() {
+            return reused.get();
+        }
+
+        public long getEvicted() {
+            return evictedUnhealthy.get() + evictedUsedUp.get();
+        }
+
+        @Override
+        public String toString() {
+            return "leases=" + getLeases() + ", created=" + getCreated() + ", reused=" + getReused()
+                    + ", evicted unhealthy=" + evictedUnhealthy.get() + ", evicted used up=" + evictedUsedUp.get()
+                    + ", lease wait avg=" + getAverageWaitMillis() + "ms, max=" + getMaxWaitMillis() + "ms";
+        }
+    }
+}
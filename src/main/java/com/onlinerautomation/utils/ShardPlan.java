@@ -0,0 +1,187 @@
+package com.onlinerautomation.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Split of the suite between JVMs: which shard runs each test method and data-provider row, by {@link TestIds}.
+ * <p>
+ * Plan is balanced by durations from {@link TestHistory}: tests are taken longest first and each goes to the shard with
+ * the least work so far. Forked suite reads the plan from <code>shard.plan</code> file and runs the shard
+ * <code>shard.index</code> of it, tests missing from the plan run in the first shard. Without <code>shard.plan</code>
+ * everything runs.
+ */
+@Slf4j
+public final class ShardPlan {
+    private static final ShardPlan UNSHARDED = new ShardPlan(1, Collections.emptyMap(), new long[1], 0);
+    private static volatile ShardPlan current;
+
+    private final int count;
+    private final Map<String, Integer> shards;
+    private final Map<String, Set<Integer>> methodShards = new HashMap<>();
+    private final long[] loads;
+    private final int index;
+
+    private ShardPlan(int count, Map<String, Integer> shards, long[] loads, int index) {
+        this.count = count;
+        this.shards = shards;
+        this.loads = loads;
+        this.index = index;
+        shards.forEach((id, shard) ->
+                methodShards.computeIfAbsent(TestIds.methodOf(id), m -> new HashSet<>()).add(shard));
+    }
+
+    /**
+     * @return plan of this JVM, configured with <code>shard.plan</code> and <code>shard.index</code>
+     */
+    public static ShardPlan current() {
+        if (current == null) {
+            synchronized (ShardPlan.class) {
+                if (current == null) {
+                    SuiteConfiguration config = SuiteConfiguration.get();
+                    String plan = config.getProperty("shard.plan");
+                    current = plan == null || plan.isEmpty() ? UNSHARDED
+                            : load(Paths.get(plan), config.getInt("shard.index"));
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @param estimates duration of every test in milliseconds
+     */
+    public static ShardPlan balance(Map<String, Long> estimates, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Shard count must be positive, got " + count);
+        }
+        List<Map.Entry<String, Long>> longestFirst = new ArrayList<>(estimates.entrySet());
+        longestFirst.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        long[] loads = new long[count];
+        Map<String, Integer> shards = new HashMap<>();
+        for (Map.Entry<String, Long> test : longestFirst) {
+            int least = 0;
+            for (int shard = 1; shard < count; shard++) {
+                if (loads[shard] < loads[least]) {
+                    least = shard;
+                }
+            }
+            loads[least] += test.getValue();
+            shards.put(test.getKey(), least);
+        }
+        return new ShardPlan(count, Collections.unmodifiableMap(shards), loads, -1);
+    }
+
+    public static ShardPlan load(Path file, int index) {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read shard plan from " + file, e);
+        }
+        int count = Integer.parseInt(properties.getProperty("shard.count", "1"));
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("Shard index " + index + " is out of " + count + " shards of " + file);
+        }
+        Map<String, Integer> shards = new HashMap<>();
+        long[] loads = new long[count];
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith("shard.load.")) {
+                loads[Integer.parseInt(name.substring("shard.load.".length()))] = Long.parseLong(properties.getProperty(name));
+            } else if (!name.equals("shard.count")) {
+                shards.put(name, Integer.parseInt(properties.getProperty(name)));
+            }
+        }
+        log.info("Running shard " + (index + 1) + " of " + count + ": " + Collections.frequency(shards.values(), index)
+                + " tests, about " + loads[index] / 1000 + "s");
+        return new ShardPlan(count, Collections.unmodifiableMap(shards), loads, index);
+    }
+
+    public void save(Path file) {
+        Properties properties = new Properties();
+        properties.setProperty("shard.count", String.valueOf(count));
+        for (int shard = 0; shard < count; shard++) {
+            properties.setProperty("shard.load." + shard, String.valueOf(loads[shard]));
+        }
+        shards.forEach((id, shard) -> properties.setProperty(id, String.valueOf(shard)));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file, UTF_8)) {
+                properties.store(writer, "Shard plan: shard of each test and data-provider row");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save shard plan to " + file, e);
+        }
+    }
+
+    public boolean isSharded() {
+        return this != UNSHARDED;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return estimated milliseconds of work of the shard
+     */
+    public long getLoad(int shard) {
+        return loads[shard];
+    }
+
+    /**
+     * @return true if this JVM runs the test method or at least one of its data-provider rows
+     */
+    public boolean runsMethod(String methodId) {
+        if (!isSharded()) {
+            return true;
+        }
+        Set<Integer> planned = methodShards.get(methodId);
+        return planned == null ? index == 0 : planned.contains(index);
+    }
+
+    /**
+     * @return true if this JVM runs the test or data-provider row
+     */
+    public boolean runs(String id) {
+        return !isSharded() || shards.getOrDefault(id, 0) == index;
+    }
+
+    /**
+     * Rows of data provider for the test method which this JVM runs
+     */
+    public Object[][] filterRows(Method testMethod, Object[][] rows) {
+        if (!isSharded()) {
+            return rows;
+        }
+        List<Object[]> kept = new ArrayList<>();
+        for (Object[] row : rows) {
+            if (runs(TestIds.of(testMethod.getDeclaringClass(), testMethod.getName(), row))) {
+                kept.add(row);
+            }
+        }
+        return kept.toArray(new Object[0][]);
+    }
+}
@@ -0,0 +1,35 @@
+package com.onlinerautomation.utils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Names stack frames as methods of the source: <code>@Step</code> methods woven by the AspectJ agent run their body
+ * in <code>method_aroundBodyN</code> called from an <code>AjcClosureN</code> class, lambdas are
+ * <code>lambda$method$N</code> methods.
+ */
+final class StackFrames {
+    private static final Pattern LAMBDA = Pattern.compile("lambda\\$([^$]+)\\$.*");
+    private static final Pattern AROUND_BODY = Pattern.compile("_aroundBody\\d+(\\$advice)?$");
+
+    private StackFrames() {
+    }
+
+    /**
+     * @return true for frames of AspectJ closures and runtime which have no method of the source
+     */
+    static boolean isWoven(StackTraceElement frame) {
+        String className = frame.getClassName();
+        return className.contains("$AjcClosure") || className.startsWith("org.aspectj.");
+    }
+
+    /**
+     * @return method of the source, e.g. <code>openFirstAnnouncement</code> for
+     * <code>openFirstAnnouncement_aroundBody12</code> and <code>lambda$openFirstAnnouncement$2</code>
+     */
+    static String methodName(StackTraceElement frame) {
+        String method = AROUND_BODY.matcher(frame.getMethodName()).replaceFirst("");
+        Matcher lambda = LAMBDA.matcher(method);
+        return lambda.matches() ? AROUND_BODY.matcher(lambda.group(1)).replaceFirst("") : method;
+    }
+}
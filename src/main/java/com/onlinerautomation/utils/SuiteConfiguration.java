@@ -1,53 +1,305 @@
 package com.onlinerautomation.utils;
 
+import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.Capabilities;
-import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.ImmutableCapabilities;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
-public class SuiteConfiguration {
+/**
+ * Settings of the suite, loaded once and never changed afterwards, so any thread reads them without locking.
+ * <p>
+ * Layers, every next one overrides the previous:
+ * <ol>
+ * <li>defaults below</li>
+ * <li><code>application.properties</code> filtered by Maven</li>
+ * <li>capabilities file named by <code>capabilities</code> property, as <code>capability.&lt;name&gt;</code></li>
+ * <li>environment variables, property name in upper case with dots and dashes replaced by underscores,
+ * e.g. <code>SESSION_POOL_MAX_SIZE</code></li>
+ * <li>system properties</li>
+ * </ol>
+ * Values left as <code>${...}</code> are ignored in every layer, that is how Maven passes a property which was not
+ * given, e.g. to the launchers of the <code>shards</code> and <code>crawl</code> profiles.
+ * Resource of <code>application.properties</code> itself can be changed with the system property of the same name.
+ */
+@Slf4j
+public final class SuiteConfiguration {
 
     private static final String APPLICATION_PROPERTIES = "/application.properties";
+    private static final String CAPABILITY_PREFIX = "capability.";
+    private static final Pattern DURATION = Pattern.compile("(\\d+)\\s*(ms|s|m)?");
+    private static final Map<String, String> DEFAULTS = defaults();
 
-    private Properties properties;
+    private final Map<String, String> properties;
+    private final Capabilities capabilities;
 
-    public SuiteConfiguration() throws IOException {
-        this(System.getProperty("application.properties", APPLICATION_PROPERTIES));
-    }
+    private static class Holder {
+        private static final SuiteConfiguration INSTANCE = load();
 
-    public SuiteConfiguration(String fromResource) throws IOException {
-        properties = new Properties();
-        properties.load(SuiteConfiguration.class.getResourceAsStream(fromResource));
+        private static SuiteConfiguration load() {
+            String resource = System.getProperty("application.properties", APPLICATION_PROPERTIES);
+            try {
+                return new SuiteConfiguration(resource, false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not load suite configuration from " + resource, e);
+            }
+        }
     }
 
-    public Capabilities getCapabilities() throws IOException {
-        String capabilitiesFile = properties.getProperty("capabilities");
+    /**
+     * @return configuration of this JVM, loaded on the first call
+     */
+    public static SuiteConfiguration get() {
+        return Holder.INSTANCE;
+    }
 
-        Properties capsProps = new Properties();
-        capsProps.load(SuiteConfiguration.class.getResourceAsStream(capabilitiesFile));
+    /**
+     * Separate configuration from the given resource, e.g. for tools which run outside the suite
+     */
+    public SuiteConfiguration(String fromResource) throws IOException {
+        this(fromResource, true);
+    }
 
-        DesiredCapabilities capabilities = new DesiredCapabilities();
-        for (String name : capsProps.stringPropertyNames()) {
-            String value = capsProps.getProperty(name);
-            if (value.toLowerCase().equals("true") || value.toLowerCase().equals("false")) {
-                capabilities.setCapability(name, Boolean.valueOf(value));
-            } else if (value.startsWith("file:")) {
-                capabilities.setCapability(name, new File(".", value.substring(5)).getCanonicalFile().getAbsolutePath());
-            } else {
-                capabilities.setCapability(name, value);
+    private SuiteConfiguration(String fromResource, boolean required) throws IOException {
+        Map<String, String> layered = new HashMap<>(DEFAULTS);
+        Properties application = loadResource(fromResource, required);
+        for (String name : application.stringPropertyNames()) {
+            String value = application.getProperty(name);
+            if (!isUnfiltered(value)) {
+                layered.put(name, value);
+            }
+        }
+        String capabilitiesFile = override(layered).apply("capabilities");
+        if (capabilitiesFile != null) {
+            Properties capabilitiesProperties = loadResource(capabilitiesFile, required);
+            for (String name : capabilitiesProperties.stringPropertyNames()) {
+                layered.put(CAPABILITY_PREFIX + name, capabilitiesProperties.getProperty(name));
+            }
+        }
+        Function<String, String> override = override(layered);
+        Map<String, String> resolved = new HashMap<>();
+        for (String name : layered.keySet()) {
+            resolved.put(name, override.apply(name));
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (!isUnfiltered(System.getProperty(name))) {
+                resolved.put(name, System.getProperty(name));
             }
         }
+        this.properties = Collections.unmodifiableMap(resolved);
+        this.capabilities = toCapabilities(properties);
+    }
 
+    /**
+     * @return capabilities of the suite browser, <code>capability.*</code> properties
+     */
+    public Capabilities getCapabilities() {
         return capabilities;
     }
 
+    /**
+     * @return routing of tests between browser and HtmlUnit, <code>driver.tier</code> property, auto by default
+     */
+    public DriverTier.Routing getDriverTierRouting() {
+        return DriverTier.Routing.byName(getString("driver.tier"));
+    }
+
+    /**
+     * @return default timeout of explicit waits, <code>wait.timeout</code> property, 30 seconds by default
+     */
+    public Duration getWaitTimeout() {
+        return getDuration("wait.timeout");
+    }
+
+    /**
+     * @return sessions per capabilities which run at the same time, <code>session.pool.max.size</code> property
+     */
+    public int getSessionPoolMaxSize() {
+        return getInt("session.pool.max.size");
+    }
+
     public boolean hasProperty(String name) {
         return properties.containsKey(name);
     }
 
+    /**
+     * @return value of the property or null if it is not set
+     */
     public String getProperty(String name) {
-        return properties.getProperty(name);
+        return properties.get(name);
+    }
+
+    /**
+     * @throws IllegalStateException if property is not set
+     */
+    public String getString(String name) {
+        String value = properties.get(name);
+        if (value == null) {
+            throw new IllegalStateException("Property [" + name + "] is not set");
+        }
+        return value;
+    }
+
+    public int getInt(String name) {
+        try {
+            return Integer.parseInt(getString(name).trim());
+        } catch (NumberFormatException e) {
+            throw invalid(name, "an integer");
+        }
+    }
+
+    public long getLong(String name) {
+        try {
+            return Long.parseLong(getString(name).trim());
+        } catch (NumberFormatException e) {
+            throw invalid(name, "an integer");
+        }
+    }
+
+    public boolean getBoolean(String name) {
+        String value = getString(name).trim().toLowerCase();
+        if (value.equals("true") || value.equals("false")) {
+            return Boolean.parseBoolean(value);
+        }
+        throw invalid(name, "true or false");
+    }
+
+    /**
+     * @return duration written as milliseconds, <code>500ms</code>, <code>30s</code> or <code>2m</code>
+     */
+    public Duration getDuration(String name) {
+        Matcher matcher = DURATION.matcher(getString(name).trim());
+        if (!matcher.matches()) {
+            throw invalid(name, "a duration like 500ms, 30s or 2m");
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        String unit = matcher.group(2);
+        if (unit == null || unit.equals("ms")) {
+            return Duration.ofMillis(amount);
+        }
+        return unit.equals("s") ? Duration.ofSeconds(amount) : Duration.ofMinutes(amount);
+    }
+
+    private IllegalArgumentException invalid(String name, String expected) {
+        return new IllegalArgumentException("Property [" + name + "] is [" + properties.get(name) + "], expected "
+                + expected);
+    }
+
+    private static Map<String, String> defaults() {
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("capabilities", "/chrome.capabilities");
+        defaults.put("chrome-driver.version", "latest");
+        defaults.put("firefox-driver.version", "latest");
+        defaults.put("edge-driver.version", "latest");
+        defaults.put("ie-driver.version", "latest");
+        defaults.put("driver.tier", "auto");
+        defaults.put("driver.repository.dir",
+                Paths.get(System.getProperty("user.home"), ".onliner-drivers").toString());
+        defaults.put("driver.repository.refresh", "false");
+        defaults.put("session.pool.max.size", "4");
+        defaults.put("session.pool.max.uses", "20");
+        defaults.put("session.tabs", "1");
+        defaults.put("page.binding", "generated");
+        defaults.put("wait.timeout", "30s");
+        defaults.put("await.engine", "awaitility");
+        defaults.put("await.poll.strategy", "backoff");
+        defaults.put("await.learn.timeout", "false");
+        defaults.put("elements.wait.engine", "polling");
+        defaults.put("element.cache", "false");
+        defaults.put("element.cache.recheck", "100ms");
+        defaults.put("page.idle.quiet", "300ms");
+        defaults.put("page.idle.timeout", "10s");
+        defaults.put("script.timeout", "30s");
+        defaults.put("wait.stats", "true");
+        defaults.put("wait.stats.dir", "target/wait-stats");
+        defaults.put("command.trace", "false");
+        defaults.put("command.trace.dir", "target/command-trace");
+        defaults.put("driver.tier.report.dir", "target/driver-tiers");
+        defaults.put("screenshot.queue.size", "16");
+        defaults.put("screenshot.max.run.mb", "100");
+        defaults.put("screenshot.max.width", "0");
+        defaults.put("proxy.enabled", "false");
+        defaults.put("proxy.port", "0");
+        defaults.put("proxy.block.hosts", "google-analytics.com,googletagmanager.com,googletagservices.com,"
+                + "doubleclick.net,googlesyndication.com,adfox.ru,mc.yandex.ru,an.yandex.ru,top-fwz1.mail.ru,"
+                + "connect.facebook.net,vk.com");
+        defaults.put("proxy.report.dir", "target/proxy");
+        defaults.put("preview.verify.count", "4");
+        defaults.put("preview.verify.sessions", "2");
+        defaults.put("test.history.file", ".test-history/durations.properties");
+        defaults.put("test.order", "auto");
+        defaults.put("shard.count", "2");
+        defaults.put("shard.dir", "target/shards");
+        defaults.put("shard.suite", "src/test/resources/smoke.xml");
+        defaults.put("crawl.filters", "");
+        defaults.put("crawl.output", "target/crawl/previews.jsonl");
+        defaults.put("crawl.checkpoint", "target/crawl/checkpoint.properties");
+        defaults.put("crawl.queue.size", "256");
+        defaults.put("crawl.max.pages", "0");
+        return Collections.unmodifiableMap(defaults);
+    }
+
+    /**
+     * System property, environment variable or the layered value of a property
+     */
+    private static Function<String, String> override(Map<String, String> layered) {
+        return name -> {
+            String value = System.getProperty(name);
+            if (value == null || isUnfiltered(value)) {
+                value = System.getenv(name.toUpperCase().replace('.', '_').replace('-', '_'));
+            }
+            return value != null && !isUnfiltered(value) ? value : layered.get(name);
+        };
+    }
+
+    private static boolean isUnfiltered(String value) {
+        return value.startsWith("${") && value.endsWith("}");
+    }
+
+    private static Properties loadResource(String resource, boolean required) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = SuiteConfiguration.class.getResourceAsStream(resource)) {
+            if (in != null) {
+                properties.load(in);
+            } else if (required) {
+                throw new FileNotFoundException("Resource " + resource + " is not found");
+            } else {
+                log.warn("Resource " + resource + " is not found, it is skipped in suite configuration");
+            }
+        }
+        return properties;
+    }
+
+    private static Capabilities toCapabilities(Map<String, String> properties) throws IOException {
+        Map<String, Object> capabilities = new HashMap<>();
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            if (!property.getKey().startsWith(CAPABILITY_PREFIX)) {
+                continue;
+            }
+            String name = property.getKey().substring(CAPABILITY_PREFIX.length());
+            String value = property.getValue();
+            if (value.toLowerCase().equals("true") || value.toLowerCase().equals("false")) {
+                capabilities.put(name, Boolean.valueOf(value));
+            } else if (value.startsWith("file:")) {
+                capabilities.put(name, new File(".", value.substring(5)).getCanonicalFile().getAbsolutePath());
+            } else {
+                capabilities.put(name, value);
+            }
+        }
+        return new ImmutableCapabilities(capabilities);
     }
 }
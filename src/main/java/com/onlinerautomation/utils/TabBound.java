@@ -0,0 +1,55 @@
+package com.onlinerautomation.utils;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Binds decorated driver to one tab of a session shared by several threads, see {@link TabPool}. Every command holds
+ * the session lock and switches the session to the tab first unless it is already there, so commands of different
+ * tabs never interleave inside one command.
+ * <p>
+ * The lock is held for one command, so a long command stalls the other tabs of the session for as long as it runs:
+ * navigation holds them until the page is loaded, which a session serves one at a time anyway. Waits which would run
+ * as one long <code>executeAsyncScript</code> ({@link PageIdle}, {@link DomWaiter}) poll short commands instead on
+ * tab-bound drivers, see {@link #isBound(Object)}.
+ * <p>
+ * Frame selection is not restored when the session comes back to the tab, tabs are meant for tests which stay in the
+ * top document.
+ */
+final class TabBound extends DriverDecorator {
+    private final TabPool.TabSession session;
+    private final String handle;
+
+    TabBound(TabPool.TabSession session, String handle) {
+        this.session = session;
+        this.handle = handle;
+    }
+
+    /**
+     * @return true if the driver or element shares its session with other tabs
+     */
+    static boolean isBound(Object decorated) {
+        return DriverDecorator.find(decorated, TabBound.class) != null;
+    }
+
+    TabPool.TabSession getSession() {
+        return session;
+    }
+
+    String getHandle() {
+        return handle;
+    }
+
+    @Override
+    protected Object invoke(Call call) throws Throwable {
+        ReentrantLock lock = session.getLock();
+        lock.lock();
+        try {
+            session.switchTo(handle);
+            return call.proceed();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
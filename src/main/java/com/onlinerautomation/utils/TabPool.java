@@ -0,0 +1,232 @@
+package com.onlinerautomation.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tabs of browser sessions leased from {@link SessionPool}, so rows of a parallel data provider share a few browsers
+ * instead of taking one each.
+ * <p>
+ * Up to <code>session.tabs</code> of {@link SuiteConfiguration} tabs are leased from one session, 1 (by default) turns
+ * tabs off. Leased driver is {@link TabBound} to its tab. Released tab other than the first one is closed, the first
+ * one is blanked, and the session goes back to {@link SessionPool} when its last tab is released. Tabs of one session
+ * share cookies and web storage while they are leased, the session pool clears them when the session is returned.
+ */
+@Slf4j
+public class TabPool {
+    public static final TabPool DEFAULT = new TabPool(SessionPool.DEFAULT, SuiteConfiguration.get().getInt("session.tabs"));
+
+    private static final String OPEN_TAB_SCRIPT = "window.open('about:blank', '_blank');";
+
+    private final SessionPool sessionPool;
+    private final int tabsPerSession;
+    private final List<TabSession> sessions = new ArrayList<>();
+    private final AtomicLong tabsOpened = new AtomicLong();
+    private final AtomicLong sessionsLeased = new AtomicLong();
+
+    public TabPool(SessionPool sessionPool, int tabsPerSession) {
+        this.sessionPool = sessionPool;
+        this.tabsPerSession = tabsPerSession;
+    }
+
+    /**
+     * @return true if sessions are shared by more than one tab
+     */
+    public boolean isEnabled() {
+        return tabsPerSession > 1;
+    }
+
+    /**
+     * Open a tab in a session with given capabilities which has less than <code>session.tabs</code> tabs leased or in
+     * a new session from {@link SessionPool}. Tabs reserved in a session which is still starting wait for it.
+     */
+    public WebDriver lease(Capabilities capabilities) {
+        TabSession session;
+        boolean starting = false;
+        synchronized (this) {
+            session = sessions.stream()
+                    .filter(s -> s.leasedTabs < tabsPerSession && s.capabilities.asMap().equals(capabilities.asMap()))
+                    .findFirst()
+                    .orElse(null);
+            if (session == null) {
+                session = new TabSession(capabilities);
+                sessions.add(session);
+                starting = true;
+            }
+            session.leasedTabs++;
+        }
+        if (starting) {
+            try {
+                session.start(sessionPool.lease(capabilities));
+                sessionsLeased.incrementAndGet();
+            } catch (RuntimeException e) {
+                // tabs reserved in it fail too, next leases start another session
+                synchronized (this) {
+                    sessions.remove(session);
+                }
+                session.fail(e);
+            }
+        }
+        try {
+            return new TabBound(session, session.openTab()).decorate(session.getDriver());
+        } catch (RuntimeException e) {
+            releaseSlot(session);
+            throw e;
+        }
+    }
+
+    /**
+     * @return true if the driver is a tab leased from this pool
+     */
+    public boolean owns(WebDriver driver) {
+        TabBound tab = DriverDecorator.find(driver, TabBound.class);
+        if (tab == null) {
+            return false;
+        }
+        synchronized (this) {
+            return sessions.contains(tab.getSession());
+        }
+    }
+
+    public void release(WebDriver driver) {
+        TabBound tab = DriverDecorator.find(driver, TabBound.class);
+        if (tab == null) {
+            throw new IllegalArgumentException("Driver is not a tab of the pool");
+        }
+        TabSession session = tab.getSession();
+        session.closeTab(tab.getHandle());
+        releaseSlot(session);
+    }
+
+    /**
+     * @return e.g. <code>tabs=19, sessions=2</code>
+     */
+    public String getStats() {
+        return "tabs=" + tabsOpened.get() + ", sessions=" + sessionsLeased.get();
+    }
+
+    private void releaseSlot(TabSession session) {
+        synchronized (this) {
+            if (--session.leasedTabs > 0) {
+                return;
+            }
+            sessions.remove(session);
+        }
+        if (session.isStarted()) {
+            sessionPool.release(session.getDriver());
+        }
+    }
+
+    /**
+     * Session shared by tabs, every command to it is made under its lock
+     */
+    final class TabSession {
+        private final Capabilities capabilities;
+        private final CompletableFuture<WebDriver> driver = new CompletableFuture<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private String firstTab;
+        private boolean firstTabLeased;
+        private String current;
+        // guarded by TabPool.this
+        private int leasedTabs;
+
+        TabSession(Capabilities capabilities) {
+            this.capabilities = capabilities;
+        }
+
+        void start(WebDriver started) {
+            // new tabs are opened by a script, which needs a document to run in
+            started.get("about:blank");
+            firstTab = started.getWindowHandle();
+            current = firstTab;
+            driver.complete(started);
+        }
+
+        void fail(RuntimeException e) {
+            driver.completeExceptionally(e);
+        }
+
+        boolean isStarted() {
+            return driver.isDone() && !driver.isCompletedExceptionally();
+        }
+
+        /**
+         * @return driver of the session, waits while the session is starting
+         */
+        WebDriver getDriver() {
+            try {
+                return driver.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        ReentrantLock getLock() {
+            return lock;
+        }
+
+        /**
+         * Make the tab current unless it is, caller holds the lock
+         */
+        void switchTo(String handle) {
+            if (!handle.equals(current)) {
+                getDriver().switchTo().window(handle);
+                current = handle;
+            }
+        }
+
+        String openTab() {
+            WebDriver driver = getDriver();
+            lock.lock();
+            try {
+                tabsOpened.incrementAndGet();
+                if (!firstTabLeased) {
+                    firstTabLeased = true;
+                    return firstTab;
+                }
+                Set<String> before = driver.getWindowHandles();
+                ((JavascriptExecutor) driver).executeScript(OPEN_TAB_SCRIPT);
+                Set<String> after = new HashSet<>(driver.getWindowHandles());
+                after.removeAll(before);
+                if (after.isEmpty()) {
+                    throw new WebDriverException("New tab was not opened, is the popup blocked?");
+                }
+                return after.iterator().next();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void closeTab(String handle) {
+            WebDriver driver = getDriver();
+            lock.lock();
+            try {
+                switchTo(handle);
+                if (handle.equals(firstTab)) {
+                    driver.get("about:blank");
+                    firstTabLeased = false;
+                } else {
+                    driver.close();
+                    current = null;
+                }
+            } catch (WebDriverException e) {
+                log.info("Tab was not closed cleanly, session reset will close it: " + e.getMessage());
+                current = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.onlinerautomation.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Thread-safe history of how long each test and data-provider row took and whether it failed, by {@link TestIds}.
+ * Keeps last {@link #CAPACITY} runs per test, a test is estimated by the median of them.
+ * <p>
+ * Saved as properties, run durations in milliseconds from the oldest, failed runs are marked with F:
+ * <code>...CarMarketTest.testMinPrice[1000, 1000]=5120,4870F,4930</code>
+ */
+@Slf4j
+public class TestHistory {
+    static final int CAPACITY = 8;
+    private static final String FAILED = "F";
+
+    private final Map<String, Runs> runs = new ConcurrentHashMap<>();
+
+    public void record(String id, long elapsedInMs) {
+        record(id, elapsedInMs, false);
+    }
+
+    public void record(String id, long elapsedInMs, boolean failed) {
+        runs.computeIfAbsent(id, k -> new Runs()).add(elapsedInMs, failed);
+    }
+
+    /**
+     * Add runs of the other history after runs of this one
+     */
+    public void addAll(TestHistory other) {
+        other.runs.forEach((id, r) -> r.forEach((elapsedInMs, failed) -> record(id, elapsedInMs, failed)));
+    }
+
+    /**
+     * @return median duration of the test in milliseconds or -1 if it never ran
+     */
+    public long estimate(String id) {
+        Runs r = runs.get(id);
+        return r == null ? -1 : r.median();
+    }
+
+    /**
+     * @return how many runs ago the test failed the last time: 0 if the last run failed, -1 if it didn't fail in the
+     * kept runs
+     */
+    public int lastFailure(String id) {
+        Runs r = runs.get(id);
+        return r == null ? -1 : r.lastFailure();
+    }
+
+    /**
+     * @return ids of the test method and its data-provider rows which ran before
+     */
+    public List<String> ids(String methodId) {
+        return runs.keySet().stream()
+                .filter(id -> TestIds.methodOf(id).equals(methodId))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return median of estimates of the given tests which ran before, or <code>fallbackInMs</code> if none did
+     */
+    public long typicalEstimate(Collection<String> ids, long fallbackInMs) {
+        long[] known = ids.stream().mapToLong(this::estimate).filter(estimate -> estimate >= 0).sorted().toArray();
+        return known.length == 0 ? fallbackInMs : known[known.length / 2];
+    }
+
+    public boolean isEmpty() {
+        return runs.isEmpty();
+    }
+
+    /**
+     * Add runs saved by {@link #save(Path)} to this history, missing file is ignored
+     */
+    public void load(Path file) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            log.warn("Could not read test history from " + file + ": " + e.getMessage());
+            return;
+        }
+        for (String id : properties.stringPropertyNames()) {
+            for (String value : properties.getProperty(id).split(",")) {
+                String run = value.trim();
+                if (!run.isEmpty()) {
+                    boolean failed = run.endsWith(FAILED);
+                    record(id, Long.parseLong(failed ? run.substring(0, run.length() - 1) : run), failed);
+                }
+            }
+        }
+    }
+
+    public void save(Path file) {
+        Properties properties = new Properties();
+        runs.forEach((id, r) -> properties.setProperty(id, r.toString()));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file, UTF_8)) {
+                properties.store(writer, "Test history: elapsed milliseconds per test and data-provider row");
+            }
+        } catch (IOException e) {
+            log.warn("Could not save test history to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static class Runs {
+        private final long[] values = new long[CAPACITY];
+        private final boolean[] failures = new boolean[CAPACITY];
+        private int size;
+        private int next;
+
+        synchronized void add(long value, boolean failed) {
+            values[next] = value;
+            failures[next] = failed;
+            next = (next + 1) % CAPACITY;
+            size = Math.min(size + 1, CAPACITY);
+        }
+
+        synchronized long median() {
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = values[index(i)];
+            }
+            Arrays.sort(sorted);
+            return sorted[size / 2];
+        }
+
+        synchronized int lastFailure() {
+            for (int runsAgo = 0; runsAgo < size; runsAgo++) {
+                if (failures[index(size - 1 - runsAgo)]) {
+                    return runsAgo;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * From the oldest run
+         */
+        synchronized void forEach(RunConsumer consumer) {
+            for (int i = 0; i < size; i++) {
+                consumer.accept(values[index(i)], failures[index(i)]);
+            }
+        }
+
+        private int index(int fromOldest) {
+            return (next - size + fromOldest + CAPACITY) % CAPACITY;
+        }
+
+        @Override
+        public synchronized String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(values[index(i)]);
+                if (failures[index(i)]) {
+                    sb.append(FAILED);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    private interface RunConsumer {
+        void accept(long elapsedInMs, boolean failed);
+    }
+}
@@ -0,0 +1,33 @@
+package com.onlinerautomation.utils;
+
+import java.util.Arrays;
+
+/**
+ * Names of test methods and their data-provider rows in test history and shard plans:
+ * <code>com.onlinerautomation.test.CarMarketTest.testFilterByCarBodyTypes[Седан]</code>
+ */
+public final class TestIds {
+
+    private TestIds() {
+    }
+
+    public static String of(Class<?> testClass, String methodName) {
+        return testClass.getName() + "." + methodName;
+    }
+
+    /**
+     * @param parameters data-provider row, empty or null for tests without parameters
+     */
+    public static String of(Class<?> testClass, String methodName, Object[] parameters) {
+        String method = of(testClass, methodName);
+        return parameters == null || parameters.length == 0 ? method : method + Arrays.deepToString(parameters);
+    }
+
+    /**
+     * @return id of the test method the row id belongs to
+     */
+    public static String methodOf(String id) {
+        int parameters = id.indexOf('[');
+        return parameters < 0 ? id : id.substring(0, parameters);
+    }
+}
@@ -0,0 +1,31 @@
+package com.onlinerautomation.utils;
+
+/**
+ * How {@link ElementsUtil} waiters detect that condition holds
+ */
+public enum WaitEngine {
+    /**
+     * Evaluate condition over WebDriver each poll interval, see {@link Await}
+     */
+    POLLING,
+    /**
+     * Install a MutationObserver in the browser and get single response once condition holds.
+     * Falls back to {@link #POLLING} for locators which can't be watched in the browser.
+     */
+    MUTATION_OBSERVER;
+
+    /**
+     * @param name polling or observer
+     */
+    public static WaitEngine byName(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "polling":
+                return POLLING;
+            case "observer":
+            case "mutation_observer":
+                return MUTATION_OBSERVER;
+            default:
+                throw new IllegalArgumentException("Unknown wait engine [" + name + "], expected polling or observer");
+        }
+    }
+}
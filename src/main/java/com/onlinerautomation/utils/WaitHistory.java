@@ -0,0 +1,127 @@
+package com.onlinerautomation.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Thread-safe history of how long waits on each key took. Keeps last {@link #CAPACITY} successful samples per key.
+ */
+@Slf4j
+public class WaitHistory {
+    static final int CAPACITY = 32;
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String key, long elapsedInMs) {
+        samples.computeIfAbsent(key, k -> new Samples()).add(elapsedInMs);
+    }
+
+    /**
+     * Forget everything known about the key, e.g. after a wait with learned timeout failed
+     */
+    public void forget(String key) {
+        samples.remove(key);
+    }
+
+    public int count(String key) {
+        Samples s = samples.get(key);
+        return s == null ? 0 : s.count();
+    }
+
+    /**
+     * @param key        wait key
+     * @param percentile value between 0 and 1
+     * @return elapsed time percentile in milliseconds or -1 if there are no samples for the key
+     */
+    public long percentile(String key, double percentile) {
+        Samples s = samples.get(key);
+        return s == null ? -1 : s.percentile(percentile);
+    }
+
+    /**
+     * Load samples saved by {@link #save(Path)}, missing file is ignored
+     */
+    public void load(Path file) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            log.warn("Could not read wait history from " + file + ": " + e.getMessage());
+            return;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            for (String value : properties.getProperty(key).split(",")) {
+                if (!value.isEmpty()) {
+                    record(key, Long.parseLong(value.trim()));
+                }
+            }
+        }
+    }
+
+    public void save(Path file) {
+        Properties properties = new Properties();
+        samples.forEach((key, s) -> properties.setProperty(key, s.toString()));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file, UTF_8)) {
+                properties.store(writer, "Await history: elapsed milliseconds per wait key");
+            }
+        } catch (IOException e) {
+            log.warn("Could not save wait history to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static class Samples {
+        private final long[] values = new long[CAPACITY];
+        private int size;
+        private int next;
+
+        synchronized void add(long value) {
+            values[next] = value;
+            next = (next + 1) % CAPACITY;
+            size = Math.min(size + 1, CAPACITY);
+        }
+
+        synchronized int count() {
+            return size;
+        }
+
+        synchronized long percentile(double percentile) {
+            if (size == 0) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * size) - 1;
+            return sorted[Math.max(0, Math.min(size - 1, index))];
+        }
+
+        @Override
+        public synchronized String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(values[(next - size + i + CAPACITY) % CAPACITY]);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.onlinerautomation.utils;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * One finished wait of {@link Await} or of a {@link WaitEngine#MUTATION_OBSERVER} waiter, see {@link WaitStats}
+ */
+@Value
+@Builder
+public class WaitRecord {
+    public enum Outcome {
+        FULFILLED,
+        TIMEOUT,
+        ERROR
+    }
+
+    /**
+     * Condition and locator or element name, the same key {@link PollStrategy} history uses
+     */
+    String key;
+    /**
+     * Page object or test method which started the wait, e.g. <code>AutoMarketPage.openFirstAnnouncement</code>
+     */
+    String caller;
+    WaitEngine engine;
+    long elapsedMs;
+    /**
+     * Condition evaluations, for observer waits the number of scripts sent to the browser
+     */
+    int polls;
+    int staleIgnored;
+    int noSuchIgnored;
+    Outcome outcome;
+}
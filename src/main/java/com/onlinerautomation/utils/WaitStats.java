@@ -0,0 +1,181 @@
+package com.onlinerautomation.utils;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Collects {@link WaitRecord}s of finished waits: per thread until the test listener drains them into the test
+ * report, and per run aggregated by key and caller.
+ * <p>
+ * Enabled by default, <code>wait.stats=false</code> in {@link SuiteConfiguration} turns recording off.
+ */
+public final class WaitStats {
+    private static final int MAX_PENDING_PER_THREAD = 10_000;
+    private static final String UNKEYED = "(no key)";
+
+    private static volatile boolean enabled = SuiteConfiguration.get().getBoolean("wait.stats");
+    private static final ThreadLocal<List<WaitRecord>> pending = ThreadLocal.withInitial(ArrayList::new);
+    private static final ConcurrentMap<List<String>, Accumulator> run = new ConcurrentHashMap<>();
+
+    /**
+     * Waits with the same key started from the same method
+     */
+    @Value
+    public static class Summary {
+        String key;
+        String caller;
+        int waits;
+        long totalMs;
+        long maxMs;
+        long polls;
+        long staleIgnored;
+        long noSuchIgnored;
+        int timeouts;
+        int errors;
+    }
+
+    private WaitStats() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        WaitStats.enabled = enabled;
+    }
+
+    /**
+     * Record wait started on the current thread, caller is looked up in the current stack
+     */
+    static void record(String key, WaitEngine engine, long elapsedMs, int polls, int staleIgnored, int noSuchIgnored,
+                       WaitRecord.Outcome outcome) {
+        if (!enabled) {
+            return;
+        }
+        WaitRecord record = WaitRecord.builder()
+                .key(key == null ? UNKEYED : key)
+                .caller(caller())
+                .engine(engine)
+                .elapsedMs(elapsedMs)
+                .polls(polls)
+                .staleIgnored(staleIgnored)
+                .noSuchIgnored(noSuchIgnored)
+                .outcome(outcome)
+                .build();
+        List<WaitRecord> records = pending.get();
+        // threads nobody drains, e.g. benchmarks, must not grow forever
+        if (records.size() < MAX_PENDING_PER_THREAD) {
+            records.add(record);
+        }
+        run.computeIfAbsent(Arrays.asList(record.getKey(), record.getCaller()),
+                id -> new Accumulator(record.getKey(), record.getCaller())).add(record);
+    }
+
+    /**
+     * @return waits recorded on the current thread since the previous call
+     */
+    public static List<WaitRecord> drain() {
+        List<WaitRecord> records = pending.get();
+        List<WaitRecord> drained = new ArrayList<>(records);
+        records.clear();
+        return drained;
+    }
+
+    /**
+     * @return waits of the whole run aggregated by key and caller, the longest total first
+     */
+    public static List<Summary> getRunSummary() {
+        return run.values().stream()
+                .map(Accumulator::toSummary)
+                .sorted(Comparator.comparingLong(Summary::getTotalMs).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the records aggregated by key and caller, the longest total first
+     */
+    public static List<Summary> summarize(Collection<WaitRecord> records) {
+        Map<List<String>, Accumulator> accumulators = new LinkedHashMap<>();
+        for (WaitRecord record : records) {
+            accumulators.computeIfAbsent(Arrays.asList(record.getKey(), record.getCaller()),
+                    id -> new Accumulator(record.getKey(), record.getCaller())).add(record);
+        }
+        return accumulators.values().stream()
+                .map(Accumulator::toSummary)
+                .sorted(Comparator.comparingLong(Summary::getTotalMs).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public static void reset() {
+        run.clear();
+        pending.get().clear();
+    }
+
+    /**
+     * First frame outside of waiting code, i.e. the page object or test method which asked to wait
+     */
+    private static String caller() {
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            String className = frame.getClassName();
+            if (!className.startsWith("com.onlinerautomation.utils.") && !className.startsWith("org.awaitility.")
+                    && !className.startsWith("java.") && !className.startsWith("sun.")
+                    && !className.startsWith("com.sun.proxy.") && !className.contains("$$Lambda")
+                    && !StackFrames.isWoven(frame)
+                    // base page helpers wait on behalf of the page object which called them
+                    && !className.equals("com.onlinerautomation.page.Page")) {
+                String simpleName = className.substring(className.lastIndexOf('.') + 1);
+                // lambda$openFirstAnnouncement$2 and woven openFirstAnnouncement_aroundBody12 are reported as
+                // openFirstAnnouncement
+                return simpleName + "." + StackFrames.methodName(frame);
+            }
+        }
+        return "unknown";
+    }
+
+    private static class Accumulator {
+        private final String key;
+        private final String caller;
+        private int waits;
+        private long totalMs;
+        private long maxMs;
+        private long polls;
+        private long staleIgnored;
+        private long noSuchIgnored;
+        private int timeouts;
+        private int errors;
+
+        Accumulator(String key, String caller) {
+            this.key = key;
+            this.caller = caller;
+        }
+
+        synchronized void add(WaitRecord record) {
+            waits++;
+            totalMs += record.getElapsedMs();
+            maxMs = Math.max(maxMs, record.getElapsedMs());
+            polls += record.getPolls();
+            staleIgnored += record.getStaleIgnored();
+            noSuchIgnored += record.getNoSuchIgnored();
+            if (record.getOutcome() == WaitRecord.Outcome.TIMEOUT) {
+                timeouts++;
+            } else if (record.getOutcome() == WaitRecord.Outcome.ERROR) {
+                errors++;
+            }
+        }
+
+        synchronized Summary toSummary() {
+            return new Summary(key, caller, waits, totalMs, maxMs, polls, staleIgnored, noSuchIgnored, timeouts, errors);
+        }
+    }
+}
@@ -6,22 +6,44 @@ import io.github.bonigarcia.wdm.FirefoxDriverManager;
 import io.github.bonigarcia.wdm.InternetExplorerDriverManager;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
+/**
+ * Points Selenium to the driver binary from {@link DriverBinaryRepository}, no network is used unless
+ * the repository is refreshed with <code>driver.repository.refresh=true</code>
+ */
 public class WebDriverManager {
+    private static final DriverBinaryRepository repository = new DriverBinaryRepository();
+
     public static void setupWebDriver(SuiteConfiguration suiteConfiguration) throws IOException {
         switch (suiteConfiguration.getCapabilities().getBrowserName()) {
             case "firefox":
-                FirefoxDriverManager.firefoxdriver().version(suiteConfiguration.getProperty("firefox-driver.version")).setup();
+                String firefoxVersion = suiteConfiguration.getProperty("firefox-driver.version");
+                setDriverPath("webdriver.gecko.driver", repository.resolve("firefox", firefoxVersion,
+                        () -> FirefoxDriverManager.firefoxdriver().version(firefoxVersion)));
                 break;
             case "MicrosoftEdge":
-                EdgeDriverManager.edgedriver().version(suiteConfiguration.getProperty("edge-driver.version")).setup();
+                String edgeVersion = suiteConfiguration.getProperty("edge-driver.version");
+                setDriverPath("webdriver.edge.driver", repository.resolve("edge", edgeVersion,
+                        () -> EdgeDriverManager.edgedriver().version(edgeVersion)));
                 break;
             case "internet explorer":
-                InternetExplorerDriverManager.iedriver().version(suiteConfiguration.getProperty("ie-driver.version")).arch32().setup();
+                String ieVersion = suiteConfiguration.getProperty("ie-driver.version");
+                setDriverPath("webdriver.ie.driver", repository.resolve("ie", ieVersion,
+                        () -> InternetExplorerDriverManager.iedriver().version(ieVersion).arch32()));
+                break;
+            case "htmlunit":
+                // runs inside the JVM, there is no driver binary
                 break;
             case "chrome":
             default:
-                ChromeDriverManager.chromedriver().version(suiteConfiguration.getProperty("chrome-driver.version")).setup();
+                String chromeVersion = suiteConfiguration.getProperty("chrome-driver.version");
+                setDriverPath("webdriver.chrome.driver", repository.resolve("chrome", chromeVersion,
+                        () -> ChromeDriverManager.chromedriver().version(chromeVersion)));
         }
     }
+
+    private static void setDriverPath(String property, Path binary) {
+        System.setProperty(property, binary.toAbsolutePath().toString());
+    }
 }
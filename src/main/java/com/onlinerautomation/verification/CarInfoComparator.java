@@ -0,0 +1,96 @@
+package com.onlinerautomation.verification;
+
+import com.onlinerautomation.data.CarPreview;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares a listing preview with announcement fields by name. Both sides are normalized first: whitespace of any kind
+ * is collapsed, spaces between digits are dropped (<code>310 000</code> is <code>310000</code>) and case is ignored.
+ * Fields match when they are equal, except a description which the listing cut with an ellipsis: it matches the
+ * announcement description starting with it.
+ */
+public final class CarInfoComparator {
+    /**
+     * Names of the compared fields in the order of {@link CarPreview#getCarInfo()}
+     */
+    public static final List<String> FIELDS = Collections.unmodifiableList(
+            Arrays.asList("title", "year", "mileage", "description"));
+    private static final Pattern CUT = Pattern.compile("(.*?)\\s*(\\.\\.\\.|…)");
+
+    private CarInfoComparator() {
+    }
+
+    /**
+     * @param details announcement fields by name, a missing one counts as empty
+     * @return diff of every field of {@link #FIELDS}
+     */
+    public static List<FieldDiff> compare(CarPreview preview, Map<String, String> details) {
+        List<String> previewInfo = preview.getCarInfo();
+        List<FieldDiff> diffs = new ArrayList<>(FIELDS.size());
+        for (int i = 0; i < FIELDS.size(); i++) {
+            String previewValue = previewInfo.get(i) == null ? "" : previewInfo.get(i);
+            String announcementValue = details.getOrDefault(FIELDS.get(i), "");
+            diffs.add(new FieldDiff(FIELDS.get(i), previewValue, announcementValue,
+                    matches(FIELDS.get(i), previewValue, announcementValue)));
+        }
+        return diffs;
+    }
+
+    static boolean matches(String field, String preview, String announcement) {
+        String a = normalize(preview);
+        String b = normalize(announcement);
+        if (a.equals(b)) {
+            return true;
+        }
+        Matcher cut = CUT.matcher(a);
+        return "description".equals(field) && cut.matches() && !cut.group(1).isEmpty() && b.startsWith(cut.group(1));
+    }
+
+    static String normalize(String value) {
+        return value.replaceAll("[\\s\\u00a0]+", " ")
+                .replaceAll("(?<=\\d) (?=\\d)", "")
+                .trim()
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return field, preview, announcement and matched columns
+     */
+    public static String toCsv(List<FieldDiff> diffs) {
+        StringBuilder csv = new StringBuilder("field,preview,announcement,matched\n");
+        for (FieldDiff diff : diffs) {
+            csv.append(diff.getField()).append(',').append(quote(diff.getPreview())).append(',')
+                    .append(quote(diff.getAnnouncement())).append(',').append(diff.isMatched()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Values of one field in the preview and on the announcement page
+     */
+    @Value
+    public static class FieldDiff {
+        String field;
+        String preview;
+        String announcement;
+        boolean matched;
+
+        @Override
+        public String toString() {
+            return field + ": [" + preview + "] vs [" + announcement + "]";
+        }
+    }
+}
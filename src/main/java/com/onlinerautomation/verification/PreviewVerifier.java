@@ -0,0 +1,249 @@
+package com.onlinerautomation.verification;
+
+import com.onlinerautomation.data.CarPreview;
+import com.onlinerautomation.page.CarAnnouncementPage;
+import com.onlinerautomation.utils.DriverTier;
+import com.onlinerautomation.utils.SessionPool;
+import com.onlinerautomation.utils.TabPool;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StepResult;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Opens announcements of listing previews on a few sessions at once and compares every preview with its
+ * {@link CarAnnouncementPage} by {@link CarInfoComparator}.
+ * <p>
+ * The driver of the caller is one of the sessions, the others are leased for the verification from
+ * {@link TabPool} when tabs are enabled for browser sessions, from {@link SessionPool} otherwise, and released when it
+ * is done. Every session takes the next announcement until none is left. An announcement which fails to open or to
+ * be read is the error of its preview and the session goes on with the next one. Each announcement is an Allure step
+ * of the running test, the aggregated {@link Report} is attached as CSV.
+ */
+@Slf4j
+public class PreviewVerifier {
+    private final Capabilities capabilities;
+    private final int sessions;
+
+    /**
+     * @param capabilities of the sessions leased besides the caller's one
+     * @param sessions     sessions opening announcements at the same time, including the caller's one
+     */
+    public PreviewVerifier(Capabilities capabilities, int sessions) {
+        this.capabilities = capabilities;
+        this.sessions = Math.max(1, sessions);
+    }
+
+    /**
+     * Leaves the driver on one of the announcements
+     */
+    public Report verify(WebDriver driver, List<CarPreview> previews) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String parentStep = lifecycle.getCurrentTestCaseOrStep().orElse(null);
+        boolean tabs = TabPool.DEFAULT.isEnabled() && DriverTier.of(driver) == DriverTier.BROWSER;
+        int workers = Math.min(sessions, previews.size());
+        ItemResult[] results = new ItemResult[previews.size()];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, workers - 1), runnable -> {
+            Thread thread = new Thread(runnable, "preview-verifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> leased = new ArrayList<>();
+            for (int worker = 1; worker < workers; worker++) {
+                leased.add(executor.submit(() -> {
+                    WebDriver session;
+                    try {
+                        session = tabs ? TabPool.DEFAULT.lease(capabilities) : SessionPool.DEFAULT.lease(capabilities);
+                    } catch (RuntimeException e) {
+                        throw new IllegalStateException("Could not lease a session to verify previews", e);
+                    }
+                    try {
+                        verifyNext(session, previews, next, results, lifecycle, parentStep);
+                    } finally {
+                        if (tabs) {
+                            TabPool.DEFAULT.release(session);
+                        } else {
+                            SessionPool.DEFAULT.release(session);
+                        }
+                    }
+                }));
+            }
+            verifyNext(driver, previews, next, results, lifecycle, parentStep);
+            for (Future<?> future : leased) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while verifying previews", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Preview verification failed", e.getCause());
+        } finally {
+            // when the caller fails, workers take no more previews and release their sessions before it goes on
+            next.set(previews.size());
+            awaitWorkers(executor);
+        }
+        Report report = new Report(Arrays.asList(results), workers,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Preview verification: " + report.getSummary());
+        if (parentStep != null) {
+            Allure.addAttachment("Preview verification", "text/csv", report.toCsv(), ".csv");
+        }
+        return report;
+    }
+
+    private void verifyNext(WebDriver driver, List<CarPreview> previews, AtomicInteger next, ItemResult[] results,
+                            AllureLifecycle lifecycle, String parentStep) {
+        for (int index = next.getAndIncrement(); index < previews.size(); index = next.getAndIncrement()) {
+            CarPreview preview = previews.get(index);
+            String step = parentStep == null ? null : UUID.randomUUID().toString();
+            if (step != null) {
+                // steps of the worker threads go under the step of the caller, methods of the page nest under them
+                lifecycle.startStep(parentStep, step, new StepResult()
+                        .setName("Verify announcement " + (index + 1) + ": " + preview.getTitle()));
+            }
+            ItemResult item = verify(driver, index, preview);
+            results[index] = item;
+            if (step != null) {
+                lifecycle.updateStep(step, result -> result.setStatus(item.isMatched()
+                        ? Status.PASSED : Status.FAILED));
+                lifecycle.stopStep(step);
+            }
+        }
+    }
+
+    private static void awaitWorkers(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ItemResult verify(WebDriver driver, int index, CarPreview preview) {
+        long start = System.nanoTime();
+        List<String> mismatches = new ArrayList<>();
+        String error = null;
+        try {
+            driver.get(preview.getUrl());
+            CarAnnouncementPage page = new CarAnnouncementPage(driver);
+            page.awaitPageIdle();
+            CarInfoComparator.compare(preview, page.getCarDetails()).stream()
+                    .filter(diff -> !diff.isMatched())
+                    .forEach(diff -> mismatches.add(diff.toString()));
+        } catch (RuntimeException | AssertionError e) {
+            // timeouts of waits and failed checks of the page are errors of this preview only
+            error = e.getMessage() == null ? e.toString() : e.getMessage().split("\n")[0];
+        }
+        return new ItemResult(index + 1, preview.getTitle(), preview.getUrl(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), mismatches, error);
+    }
+
+    /**
+     * Announcement opened for a preview
+     */
+    @Value
+    public static class ItemResult {
+        int position;
+        String title;
+        String url;
+        long latencyMillis;
+        List<String> mismatches;
+        String error;
+
+        public boolean isMatched() {
+            return error == null && mismatches.isEmpty();
+        }
+
+        String getOutcome() {
+            return error != null ? "error: " + error : mismatches.isEmpty() ? "matched" : String.join("; ", mismatches);
+        }
+    }
+
+    /**
+     * Results of all previews with throughput and latency of opening and comparing announcements
+     */
+    @Value
+    public static class Report {
+        List<ItemResult> items;
+        int sessions;
+        long elapsedMillis;
+
+        public boolean isAllMatched() {
+            return items.stream().allMatch(ItemResult::isMatched);
+        }
+
+        public List<ItemResult> getFailures() {
+            return items.stream().filter(item -> !item.isMatched()).collect(Collectors.toList());
+        }
+
+        /**
+         * @return announcements verified per second of wall time
+         */
+        public double getThroughput() {
+            return elapsedMillis == 0 ? 0 : Math.round(items.size() * 10000.0 / elapsedMillis) / 10.0;
+        }
+
+        /**
+         * @param percent 50 for median
+         */
+        public long getLatencyPercentile(int percent) {
+            if (items.isEmpty()) {
+                return 0;
+            }
+            List<Long> latencies = items.stream().map(ItemResult::getLatencyMillis).sorted()
+                    .collect(Collectors.toList());
+            return latencies.get(Math.min(latencies.size() - 1, latencies.size() * percent / 100));
+        }
+
+        public String getSummary() {
+            return items.size() + " previews on " + sessions + " sessions in " + elapsedMillis + "ms, "
+                    + getThroughput() + "/s, latency p50=" + getLatencyPercentile(50) + "ms, max="
+                    + getLatencyPercentile(100) + "ms, " + getFailures().size() + " failed";
+        }
+
+        /**
+         * @return one row per preview, the summary goes in the last row
+         */
+        public String toCsv() {
+            StringBuilder csv = new StringBuilder("position,title,url,latency_ms,outcome\n");
+            for (ItemResult item : items) {
+                csv.append(item.getPosition()).append(',').append(quote(item.getTitle())).append(',')
+                        .append(quote(item.getUrl())).append(',').append(item.getLatencyMillis()).append(',')
+                        .append(quote(item.getOutcome())).append('\n');
+            }
+            csv.append("total,,,").append(elapsedMillis).append(',').append(quote(getSummary())).append('\n');
+            return csv.toString();
+        }
+
+        private static String quote(String value) {
+            return "\"" + Optional.ofNullable(value).orElse("").replace("\"", "\"\"") + "\"";
+        }
+    }
+}
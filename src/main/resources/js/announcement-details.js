@@ -0,0 +1,12 @@
+/*
+ * Reads fields of CarAnnouncementPage in one call.
+ * arguments: list of [name, css selector] pairs
+ * result: map of field name to its text, empty if the element is missing
+ */
+var fields = arguments[0], result = {};
+
+fields.forEach(function (field) {
+    var element = document.querySelector(field[1]);
+    result[field[0]] = element ? (element.innerText || element.textContent || '').trim() : '';
+});
+return result;
@@ -0,0 +1,43 @@
+/*
+ * Collects all announcement rows of AutoMarketPage listing in one call.
+ * arguments: row, title link, year, mileage, description and price css selectors
+ * result: list of maps with title, year, mileage, description, price and url
+ */
+var rowSelector = arguments[0], titleSelector = arguments[1], yearSelector = arguments[2],
+    mileageSelector = arguments[3], descriptionSelector = arguments[4], priceSelector = arguments[5];
+
+function text(row, selector) {
+    var element = row.querySelector(selector);
+    return element ? (element.innerText || element.textContent || '').trim() : '';
+}
+
+// first rendered line, the same as getText().split("\n")[0]
+function firstLine(row, selector) {
+    var element = row.querySelector(selector);
+    if (!element) {
+        return '';
+    }
+    var text = element.innerText;
+    if (text && text.indexOf('\n') >= 0) {
+        return text.split('\n')[0].trim();
+    }
+    for (var i = 0; i < element.childNodes.length; i++) {
+        var line = (element.childNodes[i].textContent || '').trim();
+        if (line) {
+            return line;
+        }
+    }
+    return '';
+}
+
+return Array.prototype.map.call(document.querySelectorAll(rowSelector), function (row) {
+    var link = row.querySelector(titleSelector);
+    return {
+        title: text(row, titleSelector),
+        year: text(row, yearSelector),
+        mileage: text(row, mileageSelector),
+        description: text(row, descriptionSelector),
+        price: firstLine(row, priceSelector),
+        url: link ? link.href : ''
+    };
+});
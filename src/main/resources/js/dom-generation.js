@@ -0,0 +1,20 @@
+/*
+ * Generation of the current document for ElementReadCache. Installs once per document a counter of DOM mutations and
+ * of the events which change rendering without them: finished transitions and animations, loaded images and resize.
+ * The id tells documents apart after navigation.
+ * result: "<document id>:<change count>"
+ */
+var tracker = window.__domGeneration;
+if (!tracker) {
+    tracker = window.__domGeneration = {id: Math.random().toString(36).slice(2), count: 0};
+    var touch = function () {
+        tracker.count++;
+    };
+    new MutationObserver(touch).observe(document.documentElement,
+        {subtree: true, childList: true, attributes: true, characterData: true});
+    ['transitionend', 'animationend', 'load'].forEach(function (type) {
+        document.addEventListener(type, touch, true);
+    });
+    window.addEventListener('resize', touch);
+}
+return tracker.id + ':' + tracker.count;
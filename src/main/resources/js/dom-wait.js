@@ -0,0 +1,87 @@
+/*
+ * Resolves as soon as DOM condition holds. Used by DomWaiter via executeAsyncScript.
+ * arguments: element or false, css selector or empty string, condition, condition argument, timeout in ms, callback
+ * result: 'ok', 'timeout' or 'stale' when the given element was detached from the document
+ */
+var element = arguments[0], selector = arguments[1], condition = arguments[2], argument = arguments[3],
+    timeout = arguments[4], done = arguments[arguments.length - 1];
+
+function target() {
+    if (element) {
+        return document.documentElement.contains(element) ? element : null;
+    }
+    return document.querySelector(selector);
+}
+
+function visible(e) {
+    if (!e) {
+        return false;
+    }
+    for (var node = e; node && node.nodeType === 1; node = node.parentElement) {
+        if (window.getComputedStyle(node).display === 'none') {
+            return false;
+        }
+    }
+    var style = window.getComputedStyle(e);
+    if (style.visibility === 'hidden' || style.visibility === 'collapse' || parseFloat(style.opacity) === 0) {
+        return false;
+    }
+    var rect = e.getBoundingClientRect();
+    return rect.width > 0 && rect.height > 0;
+}
+
+function holds(e) {
+    switch (condition) {
+        case 'visible':
+            return visible(e);
+        case 'hidden':
+            return !visible(e);
+        case 'clickable':
+            return visible(e) && !e.disabled;
+        case 'classPresent':
+            return !!e && e.classList.contains(argument);
+        case 'classAbsent':
+            return !!e && !e.classList.contains(argument);
+        case 'textPresent':
+            return !!e && (e.innerText || e.textContent || '').indexOf(argument) >= 0;
+        default:
+            throw new Error('Unknown condition ' + condition);
+    }
+}
+
+function check() {
+    var e = target();
+    if (element && !e) {
+        return condition === 'hidden' ? 'ok' : 'stale';
+    }
+    return holds(e) ? 'ok' : null;
+}
+
+var first = check();
+if (first) {
+    done(first);
+} else {
+    var finished = false, observer, timer, fallback;
+    var finish = function (result) {
+        if (!finished) {
+            finished = true;
+            observer.disconnect();
+            clearTimeout(timer);
+            clearInterval(fallback);
+            done(result);
+        }
+    };
+    var onChange = function () {
+        var result = check();
+        if (result) {
+            finish(result);
+        }
+    };
+    observer = new MutationObserver(onChange);
+    observer.observe(document.documentElement, {subtree: true, childList: true, attributes: true, characterData: true});
+    timer = setTimeout(function () {
+        finish(check() || 'timeout');
+    }, timeout);
+    // style changes coming from stylesheets, transitions or layout do not produce mutations
+    fallback = setInterval(onChange, 250);
+}
@@ -0,0 +1,15 @@
+/*
+ * Indexes items of a LeftMenu filter list in one call.
+ * arguments: filter item css selector
+ * result: list of maps with name (first word of the item text), input and count elements
+ */
+var itemSelector = arguments[0];
+
+return Array.prototype.map.call(document.querySelectorAll(itemSelector), function (item) {
+    var text = (item.innerText || item.textContent || '').trim();
+    return {
+        name: text.split(/\s+/)[0],
+        input: item.querySelector('input'),
+        count: item.querySelector('.count')
+    };
+});
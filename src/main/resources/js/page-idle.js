@@ -0,0 +1,81 @@
+/*
+ * Page readiness for PageIdle via executeAsyncScript. Installs once per document a tracker of XHR and fetch requests
+ * in flight and of the last DOM mutation, then resolves when the document is complete, nothing is in flight and
+ * neither requests nor DOM changed for the quiet window, counted from the start of the wait at the earliest.
+ * arguments: wait (false only installs the tracker), quiet window in ms, timeout in ms (0 checks once),
+ * ms the wait has run before the call, callback
+ * result: 'ok', 'tracked' or description of what is still busy on timeout
+ */
+var wait = arguments[0], quiet = arguments[1], timeout = arguments[2], since = arguments[3];
+var done = arguments[arguments.length - 1];
+
+function install() {
+    var tracker = {pending: 0, lastActivity: Date.now()};
+    var touch = function () {
+        tracker.lastActivity = Date.now();
+    };
+    var started = function () {
+        tracker.pending++;
+        touch();
+    };
+    var finished = function () {
+        tracker.pending = Math.max(0, tracker.pending - 1);
+        touch();
+    };
+    var send = XMLHttpRequest.prototype.send;
+    XMLHttpRequest.prototype.send = function () {
+        var xhr = this, counted = true;
+        started();
+        xhr.addEventListener('readystatechange', function () {
+            if (xhr.readyState === 4 && counted) {
+                counted = false;
+                finished();
+            }
+        });
+        try {
+            return send.apply(xhr, arguments);
+        } catch (e) {
+            if (counted) {
+                counted = false;
+                finished();
+            }
+            throw e;
+        }
+    };
+    if (window.fetch) {
+        var fetch = window.fetch;
+        window.fetch = function () {
+            started();
+            return fetch.apply(this, arguments).then(function (response) {
+                finished();
+                return response;
+            }, function (error) {
+                finished();
+                throw error;
+            });
+        };
+    }
+    new MutationObserver(touch).observe(document.documentElement,
+        {subtree: true, childList: true, attributes: true, characterData: true});
+    return tracker;
+}
+
+var tracker = window.__pageIdleTracker || (window.__pageIdleTracker = install());
+if (!wait) {
+    done('tracked');
+} else {
+    var called = Date.now(), start = called - since;
+    var check = function () {
+        var now = Date.now();
+        if (document.readyState === 'complete' && tracker.pending === 0
+            && now - Math.max(tracker.lastActivity, start) >= quiet) {
+            done('ok');
+        } else if (now - called >= timeout) {
+            done('document ' + document.readyState + ', ' + tracker.pending + ' requests in flight, last activity '
+                + (now - tracker.lastActivity) + ' ms ago');
+        } else {
+            setTimeout(check, Math.max(10, Math.min(50, quiet)));
+        }
+    };
+    check();
+}
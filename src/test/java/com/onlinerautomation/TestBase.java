@@ -1,64 +1,146 @@
 package com.onlinerautomation;
 
+import com.onlinerautomation.utils.BlockingProxy;
+import com.onlinerautomation.utils.CommandTracer;
+import com.onlinerautomation.utils.DriverContext;
+import com.onlinerautomation.utils.DriverTier;
+import com.onlinerautomation.utils.ElementReadCache;
+import com.onlinerautomation.utils.SessionPool;
 import com.onlinerautomation.utils.SuiteConfiguration;
-import io.qameta.allure.testng.AllureTestNg;
+import com.onlinerautomation.utils.TabPool;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebDriver;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Listeners;
-import ru.stqa.selenium.factory.WebDriverPool;
+import org.testng.annotations.Test;
+import utils.fixtures.FixtureServer;
 import utils.listeners.AllureListener;
+import utils.listeners.CommandTraceListener;
+import utils.listeners.DriverTierListener;
+import utils.listeners.ShardInterceptor;
+import utils.listeners.TestHistoryListener;
+import utils.listeners.TestOrderInterceptor;
+import utils.listeners.WaitStatsListener;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.file.Paths;
 
 import static com.onlinerautomation.utils.WebDriverManager.setupWebDriver;
 
 @Slf4j
-@Listeners({AllureTestNg.class, AllureListener.class})
+// AllureTestNg is registered by allure-testng through ServiceLoader, listing it here made every test reported twice
+@Listeners({AllureListener.class, WaitStatsListener.class, CommandTraceListener.class, DriverTierListener.class,
+        TestHistoryListener.class, ShardInterceptor.class, TestOrderInterceptor.class})
 public abstract class TestBase {
 
 
-    protected WebDriver driver;
     protected static String baseUrl;
     protected static String basePath;
     protected static Capabilities capabilities;
+    protected static DriverTier.Routing driverTierRouting;
+    private static FixtureServer fixtureServer;
+    private static BlockingProxy proxy;
 
+    /**
+     * @return driver of the current test thread, test methods, data-provider rows and their before/after methods
+     * run on the same thread
+     */
     public WebDriver getDriver() {
-        return driver;
+        return DriverContext.getDriver();
     }
 
     @BeforeSuite
     public void initTestSuite() throws IOException {
-        SuiteConfiguration config = new SuiteConfiguration();
+        SuiteConfiguration config = SuiteConfiguration.get();
         baseUrl = config.getProperty("site.url");
         basePath = config.getProperty("server.base");
         capabilities = config.getCapabilities();
-        setupWebDriver(config);
+        driverTierRouting = config.getDriverTierRouting();
+        if (driverTierRouting.usesBrowser()) {
+            setupWebDriver(config);
+        }
+        if (FixtureServer.isLocal(baseUrl)) {
+            fixtureServer = FixtureServer.start(FixtureServer.portOf(baseUrl));
+        }
+        if (config.getBoolean("proxy.enabled")) {
+            proxy = BlockingProxy.start(config);
+            capabilities = proxy.configure(capabilities);
+        }
     }
 
     @BeforeMethod
     public void prepareForTestMethod(Method method) {
         log.info("Method name: " + method.getName());
-        initWebDriver();
+        initWebDriver(driverTierRouting.tierOf(method), isDataProviderRow(method));
         openTargetPage();
     }
 
     @AfterMethod(alwaysRun = true)
     public void tearDown() {
-        if (!WebDriverPool.DEFAULT.isEmpty()) {
-            log.info("Close WebDriver");
-            WebDriverPool.DEFAULT.dismissAll();
+        WebDriver driver = DriverContext.removeDriver();
+        if (driver != null && TabPool.DEFAULT.owns(driver)) {
+            log.info("Release WebDriver tab");
+            TabPool.DEFAULT.release(driver);
+        } else if (driver != null) {
+            log.info("Release WebDriver");
+            SessionPool.DEFAULT.release(driver);
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void closeSessions() {
+        log.info("Session pool: " + SessionPool.DEFAULT.getLeaseStats());
+        if (TabPool.DEFAULT.isEnabled()) {
+            log.info("Tab pool: " + TabPool.DEFAULT.getStats());
+        }
+        if (SuiteConfiguration.get().getBoolean("element.cache")) {
+            log.info("Element read cache: " + ElementReadCache.getStats());
+        }
+        SessionPool.DEFAULT.dismissAll();
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void stopFixtureServer() {
+        if (fixtureServer != null) {
+            fixtureServer.stop();
+            fixtureServer = null;
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void stopProxy() {
+        if (proxy != null) {
+            proxy.stop();
+            proxy.writeReport(Paths.get(SuiteConfiguration.get().getString("proxy.report.dir")));
+            proxy = null;
+        }
+    }
+
+    /**
+     * Rows of data providers share browser sessions by tabs when <code>session.tabs</code> is more than 1. Element
+     * reads are cached by {@link ElementReadCache} when <code>element.cache</code> is on, commands which get past
+     * the cache are recorded by {@link CommandTracer} when <code>command.trace</code> is on.
+     */
+    private void initWebDriver(DriverTier tier, boolean dataProviderRow) {
+        WebDriver driver;
+        if (dataProviderRow && tier == DriverTier.BROWSER && TabPool.DEFAULT.isEnabled()) {
+            log.info("Web driver tab was initialized");
+            driver = TabPool.DEFAULT.lease(tier.capabilities(capabilities));
+        } else {
+            log.info("Web driver was initialized, tier " + tier);
+            driver = SessionPool.DEFAULT.lease(tier.capabilities(capabilities));
         }
+        DriverContext.setDriver(ElementReadCache.install(CommandTracer.install(driver)));
     }
 
-    private void initWebDriver() {
-        log.info("Web driver was initialized");
-        driver = WebDriverPool.DEFAULT.getDriver(capabilities);
-        driver.manage().window().maximize();
+    private static boolean isDataProviderRow(Method method) {
+        Test test = method.getAnnotation(Test.class);
+        return test != null && !test.dataProvider().isEmpty();
     }
 
     public abstract void openTargetPage();
@@ -0,0 +1,93 @@
+package com.onlinerautomation.benchmark;
+
+import com.onlinerautomation.utils.Await;
+import com.onlinerautomation.utils.AwaitEngine;
+import org.awaitility.Duration;
+import org.awaitility.pollinterval.FixedPollInterval;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * JVM side cost of {@link Await}: building the wait, a wait fulfilled on the first poll and a single poll,
+ * for each {@link AwaitEngine}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AwaitBenchmark {
+    static final int POLLS = 10;
+    static final int MANY_POLLS = 1000;
+
+    @Param({"awaitility", "in-thread"})
+    public String engine;
+
+    private int polls;
+
+    @Setup
+    public void setUp() {
+        Await.setDefaultEngine(AwaitEngine.byName(engine));
+    }
+
+    @Benchmark
+    public Await create() {
+        return Await.waitFor(30);
+    }
+
+    @Benchmark
+    public void fulfilledOnFirstPoll() {
+        Await.waitFor(30).until(() -> true);
+    }
+
+    @Benchmark
+    public void fulfilledOnFirstPollWithKey() {
+        Await.waitFor(30, "benchmark").until(() -> true);
+    }
+
+    /**
+     * Time of one poll, polls go back to back so the poll interval does not hide the overhead
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(POLLS)
+    public void perPoll() {
+        polls = 0;
+        Await.waitFor(30)
+                .pollDelay(Duration.ZERO)
+                .pollInterval(new FixedPollInterval(new Duration(1, NANOSECONDS)))
+                .until(() -> ++polls >= POLLS);
+    }
+
+    /**
+     * The same as {@link #perPoll()} with the cost of the wait itself spread over many polls, allocation rate of
+     * this one is the allocation of the polling loop
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(MANY_POLLS)
+    public void perPollOfLongWait() {
+        polls = 0;
+        Await.waitFor(30)
+                .pollDelay(Duration.ZERO)
+                .pollInterval(new FixedPollInterval(new Duration(1, NANOSECONDS)))
+                .until(() -> ++polls >= MANY_POLLS);
+    }
+}
@@ -0,0 +1,88 @@
+package com.onlinerautomation.benchmark;
+
+import com.onlinerautomation.utils.Await;
+import com.onlinerautomation.utils.AwaitEngine;
+import com.onlinerautomation.utils.ElementsUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JVM side cost of {@link ElementsUtil} accessors and waiters against elements which are already in the wanted state,
+ * for each {@link AwaitEngine}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElementsUtilBenchmark {
+    private static final By LOCATOR = By.cssSelector(".stub");
+
+    @Param({"awaitility", "in-thread"})
+    public String engine;
+
+    private WebElement element;
+    private WebDriver driver;
+
+    @Setup
+    public void setUp() {
+        Await.setDefaultEngine(AwaitEngine.byName(engine));
+        element = new StubWebElement("stub text", "stub active");
+        driver = new StubWebDriver(element);
+    }
+
+    @Benchmark
+    public boolean isDisplayed() {
+        return ElementsUtil.isDisplayed(element);
+    }
+
+    @Benchmark
+    public boolean isDisplayedByLocator() {
+        return ElementsUtil.isDisplayed(driver, LOCATOR);
+    }
+
+    @Benchmark
+    public boolean isClickable() {
+        return ElementsUtil.isClickable(element);
+    }
+
+    @Benchmark
+    public void waitForVisible() {
+        ElementsUtil.waitForVisible(element);
+    }
+
+    @Benchmark
+    public void waitForVisibleByLocator() {
+        ElementsUtil.waitForVisible(driver, LOCATOR);
+    }
+
+    @Benchmark
+    public WebElement waitForClickable() {
+        return ElementsUtil.waitForClickable(element);
+    }
+
+    @Benchmark
+    public void waitForClassPresent() {
+        ElementsUtil.waitForClassPresent("active", element, 30);
+    }
+
+    @Benchmark
+    public void waitForTextPresent() {
+        ElementsUtil.waitForTextPresent(element, "text", 30);
+    }
+}
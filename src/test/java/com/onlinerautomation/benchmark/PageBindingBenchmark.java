@@ -0,0 +1,65 @@
+package com.onlinerautomation.benchmark;
+
+import com.onlinerautomation.binder.PageBinders;
+import com.onlinerautomation.page.AutoMarketPage;
+import com.onlinerautomation.page.CarAnnouncementPage;
+import com.onlinerautomation.page.HomePage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Page construction with generated binders against reflective PageFactory
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageBindingBenchmark {
+    @Param({"generated", "reflective"})
+    private String binding;
+
+    private WebDriver driver;
+
+    @Setup
+    public void setUp() {
+        driver = new StubWebDriver();
+        PageBinders.setDefaultMode(PageBinders.Mode.byName(binding));
+    }
+
+    @Benchmark
+    public HomePage homePage() {
+        return new HomePage(driver);
+    }
+
+    @Benchmark
+    public AutoMarketPage autoMarketPage() {
+        return new AutoMarketPage(driver);
+    }
+
+    /**
+     * Listing with its left menu, which is created on first use
+     */
+    @Benchmark
+    public Object autoMarketPageWithLeftMenu() {
+        return new AutoMarketPage(driver).getCarBodyTypeList();
+    }
+
+    @Benchmark
+    public CarAnnouncementPage carAnnouncementPage() {
+        return new CarAnnouncementPage(driver);
+    }
+}
@@ -0,0 +1,96 @@
+package com.onlinerautomation.benchmark;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * WebDriver which answers without a browser, so benchmarks measure the JVM side only
+ */
+public class StubWebDriver implements WebDriver {
+    private final WebElement element;
+
+    /**
+     * Driver without elements
+     */
+    public StubWebDriver() {
+        this(null);
+    }
+
+    /**
+     * @param element element every find returns
+     */
+    public StubWebDriver(WebElement element) {
+        this.element = element;
+    }
+
+    @Override
+    public void get(String url) {
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return "about:blank";
+    }
+
+    @Override
+    public String getTitle() {
+        return "";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return element == null ? Collections.emptyList() : Collections.singletonList(element);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        if (element == null) {
+            throw new NoSuchElementException("Stub driver has no elements: " + by);
+        }
+        return element;
+    }
+
+    @Override
+    public String getPageSource() {
+        return "";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void quit() {
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return Collections.singleton("stub");
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return "stub";
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Navigation navigate() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Options manage() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,88 @@
+package com.onlinerautomation.crawler;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class ListingCrawlerTest {
+    private static final String WRITTEN = "{\"title\":\"BMW X5\"}\n{\"title\":\"Audi A6\"}\n";
+    private static final String HALF_PAGE = "{\"title\":\"Opel Astra\"}\n{\"tit";
+
+    private Path dir;
+    private Path output;
+    private ListingCrawler crawler;
+
+    @BeforeMethod
+    public void createCrawler() throws IOException {
+        dir = Files.createTempDirectory("crawl");
+        output = dir.resolve("previews.jsonl");
+        crawler = new ListingCrawler(output, dir.resolve("checkpoint.properties"), 16, 0);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDir() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testResumeCutsHalfWrittenPage() throws IOException {
+        Files.write(output, (WRITTEN + HALF_PAGE).getBytes(UTF_8));
+        crawler.save(new ListingCrawler.Checkpoint("BODY_TYPE:Седан", 2, 2, WRITTEN.getBytes(UTF_8).length, false));
+
+        ListingCrawler.Checkpoint checkpoint = crawler.resume("BODY_TYPE:Седан");
+
+        assertEquals(checkpoint.page, 2);
+        assertEquals(checkpoint.rows, 2);
+        assertFalse(checkpoint.complete);
+        assertEquals(new String(Files.readAllBytes(output), UTF_8), WRITTEN);
+    }
+
+    @Test
+    public void testOtherFiltersStartOver() throws IOException {
+        Files.write(output, WRITTEN.getBytes(UTF_8));
+        crawler.save(new ListingCrawler.Checkpoint("BODY_TYPE:Седан", 2, 2, WRITTEN.getBytes(UTF_8).length, false));
+
+        ListingCrawler.Checkpoint checkpoint = crawler.resume("FUEL:Дизель");
+
+        assertEquals(checkpoint.page, 0);
+        assertEquals(checkpoint.filters, "FUEL:Дизель");
+        assertEquals(Files.size(output), 0);
+    }
+
+    @Test
+    public void testFinishedCrawlStartsOver() throws IOException {
+        Files.write(output, WRITTEN.getBytes(UTF_8));
+        crawler.save(new ListingCrawler.Checkpoint("", 5, 2, WRITTEN.getBytes(UTF_8).length, false).completed());
+
+        ListingCrawler.Checkpoint checkpoint = crawler.resume("");
+
+        assertEquals(checkpoint.page, 0);
+        assertEquals(checkpoint.rows, 0);
+        assertEquals(Files.size(output), 0);
+    }
+
+    @Test
+    public void testFirstCrawlCreatesOutput() throws IOException {
+        output = dir.resolve("crawl").resolve("previews.jsonl");
+        crawler = new ListingCrawler(output, dir.resolve("crawl").resolve("checkpoint.properties"), 16, 0);
+
+        ListingCrawler.Checkpoint checkpoint = crawler.resume("");
+
+        assertEquals(checkpoint.page, 0);
+        assertTrue(Files.exists(output));
+        assertEquals(Files.size(output), 0);
+    }
+}
@@ -2,33 +2,44 @@ package com.onlinerautomation.test;
 
 import com.onlinerautomation.TestBase;
 import com.onlinerautomation.page.AutoMarketPage;
-import com.onlinerautomation.page.CarAnnouncementPage;
 import com.onlinerautomation.page.HomePage;
+import com.onlinerautomation.utils.DriverTier;
+import com.onlinerautomation.utils.DriverTier.HtmlUnitEligible;
+import com.onlinerautomation.utils.SuiteConfiguration;
+import com.onlinerautomation.verification.PreviewVerifier;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 public class CarAnnouncementTest extends TestBase {
 
-    private AutoMarketPage autoMarketPage;
-    private CarAnnouncementPage carAnnouncementPage;
+    private final ThreadLocal<AutoMarketPage> autoMarketPage = new ThreadLocal<>();
 
     @BeforeMethod
     public void beforeMethod() {
-        autoMarketPage = new HomePage(driver).openAnnouncementCarPage();
+        autoMarketPage.set(new HomePage(getDriver()).openAnnouncementCarPage());
     }
 
     @Test(description = "Compare preview data with opened announcement data")
     public void testComparePreviewAndOpenedAnnouncementData() {
-        autoMarketPage.openFirstAnnouncement().verifyCarInformation();
+        autoMarketPage.get().openFirstAnnouncement().verifyCarInformation();
+    }
+
+    @Test(description = "Compare first previews with their announcements opened concurrently")
+    public void testCompareFirstPreviewsWithAnnouncements() {
+        SuiteConfiguration config = SuiteConfiguration.get();
+        autoMarketPage.get().verifyFirstAnnouncements(config.getInt("preview.verify.count"),
+                new PreviewVerifier(DriverTier.of(getDriver()).capabilities(capabilities),
+                        config.getInt("preview.verify.sessions")));
     }
 
     @Test(description = "Verify car announcement elements")
+    @HtmlUnitEligible
     public void testVerifyPageElements(){
-        autoMarketPage.openFirstAnnouncement().verifyCarAnnouncementElements();
+        autoMarketPage.get().openFirstAnnouncement().verifyCarAnnouncementElements();
     }
 
     @Override
     public void openTargetPage() {
-        driver.get(baseUrl);
+        getDriver().get(baseUrl);
     }
 }
@@ -13,18 +13,18 @@ import java.util.List;
 
 public class CarMarketTest extends TestBase {
 
-    private AutoMarketPage autoMarketPage;
+    private final ThreadLocal<AutoMarketPage> autoMarketPage = new ThreadLocal<>();
 
     @BeforeMethod
     public void beforeMethod() {
-        autoMarketPage = new HomePage(driver).openAnnouncementCarPage();
+        autoMarketPage.set(new HomePage(getDriver()).openAnnouncementCarPage());
     }
 
     @Test(description = "Select car by body type",
             dataProvider = "Filter by car body types", dataProviderClass = DataForFilers.class)
     public void testFilterByCarBodyTypes(String data) {
-        List<WebElement> expected = autoMarketPage.getCarBodyTypeList();
-        autoMarketPage.verityCardList()
+        List<WebElement> expected = autoMarketPage.get().getCarBodyTypeList();
+        autoMarketPage.get().verityCardList()
                 .setCarFilteryType(expected, data)
                 .varifyCarCountForFilter(expected, data);
     }
@@ -32,8 +32,8 @@ public class CarMarketTest extends TestBase {
     @Test(description = "Select car by engine type",
             dataProvider = "Filter by engine's type", dataProviderClass = DataForFilers.class)
     public void testFilterByCarEngineType(String data) {
-        List<WebElement> expected = autoMarketPage.getCarEngineTypeList();
-        autoMarketPage.verityCardList()
+        List<WebElement> expected = autoMarketPage.get().getCarEngineTypeList();
+        autoMarketPage.get().verityCardList()
                 .setCarFilteryType(expected, data)
                 .varifyCarCountForFilter(expected, data);
     }
@@ -42,8 +42,8 @@ public class CarMarketTest extends TestBase {
     @Test(description = "Select car by transmission type",
             dataProvider = "Filter by transmission type", dataProviderClass = DataForFilers.class)
     public void testFilterByCarTransmissionType(String data) {
-        List<WebElement> expected = autoMarketPage.getCarTransmissionTypeList();
-        autoMarketPage.verityCardList()
+        List<WebElement> expected = autoMarketPage.get().getCarTransmissionTypeList();
+        autoMarketPage.get().verityCardList()
                 .setCarFilteryType(expected, data)
                 .varifyCarCountForFilter(expected, data);
     }
@@ -51,13 +51,13 @@ public class CarMarketTest extends TestBase {
     @Test(description = "Filtering car announcement by price",
     dataProvider = "Filter by price", dataProviderClass = DataForFilers.class)
     public void testMinPrice(String minPrice, String maxPrice) {
-        autoMarketPage.selectkMinPrice(minPrice)
+        autoMarketPage.get().selectkMinPrice(minPrice)
                 .selectMaxPrice(maxPrice)
                 .verifyCarList(minPrice, maxPrice);
     }
 
     @Override
     public void openTargetPage() {
-        driver.get(baseUrl);
+        getDriver().get(baseUrl);
     }
 }
@@ -2,17 +2,19 @@ package com.onlinerautomation.test;
 
 import com.onlinerautomation.TestBase;
 import com.onlinerautomation.page.HomePage;
+import com.onlinerautomation.utils.DriverTier.HtmlUnitEligible;
 import org.testng.annotations.Test;
 
 public class OnlinerHomePageTest extends TestBase {
     @Override
     public void openTargetPage() {
-        driver.get(baseUrl);
+        getDriver().get(baseUrl);
     }
 
     @Test
+    @HtmlUnitEligible
     public void testOnlinerHomePage() {
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         homePage.verifyHomePageLogo();
     }
 
@@ -10,35 +10,35 @@ import java.util.List;
 
 public class SearchTest extends TestBase {
 
-    private HomePage homePage;
-    private ProductPage shopGoodPage;
+    private final ThreadLocal<HomePage> homePage = new ThreadLocal<>();
+    private final ThreadLocal<ProductPage> shopGoodPage = new ThreadLocal<>();
 
     @BeforeMethod
     public void beforeMethod() {
-        homePage = new HomePage(driver);
-        shopGoodPage = new ProductPage(driver);
+        homePage.set(new HomePage(getDriver()));
+        shopGoodPage.set(new ProductPage(getDriver()));
     }
 
     @Test(description = "Search product in catalog")
     public void testOnlinerPositiveSearch() {
-        List<String> info = homePage
+        List<String> info = homePage.get()
                 .enterSearchData()
                 .selectFirstSearchResult();
 
-        shopGoodPage.verifyProductInfo(info);
+        shopGoodPage.get().verifyProductInfo(info);
     }
 
     @Test(description = "Verify product page elements")
     public void testProductPageElements() {
-        homePage.enterSearchData()
+        homePage.get().enterSearchData()
                 .selectFirstSearchResult();
 
-        shopGoodPage
+        shopGoodPage.get()
                 .verifyItemElements();
     }
 
     @Override
     public void openTargetPage() {
-        driver.get(baseUrl);
+        getDriver().get(baseUrl);
     }
 }
@@ -0,0 +1,159 @@
+package com.onlinerautomation.utils;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Collections;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class BlockingProxyTest {
+    private HttpServer upstream;
+    private BlockingProxy proxy;
+    private String origin;
+
+    @BeforeClass
+    public void start() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        upstream.createContext("/", exchange -> {
+            byte[] body = ByteStreams.toByteArray(exchange.getRequestBody());
+            String echo = exchange.getRequestMethod() + " " + exchange.getRequestURI()
+                    + " host=" + exchange.getRequestHeaders().getFirst("Host")
+                    + " origin=" + exchange.getRequestHeaders().getFirst("Origin")
+                    + " proxy-connection=" + exchange.getRequestHeaders().getFirst("Proxy-Connection")
+                    + " body=" + new String(body, UTF_8);
+            exchange.getResponseHeaders().add("Set-Cookie", "a=1; Expires=Wed, 21 Oct 2026 07:28:00 GMT");
+            exchange.getResponseHeaders().add("Set-Cookie", "b=2");
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/no-content") || path.equals("/not-modified")) {
+                exchange.sendResponseHeaders(path.equals("/no-content") ? 204 : 304, -1);
+            } else {
+                byte[] response = echo.getBytes(UTF_8);
+                // length 0 makes the server send the response in chunks
+                exchange.sendResponseHeaders(200, path.equals("/chunked") ? 0 : response.length);
+                if (!"HEAD".equals(exchange.getRequestMethod())) {
+                    exchange.getResponseBody().write(response);
+                }
+            }
+            exchange.close();
+        });
+        upstream.start();
+        origin = "http://127.0.0.1:" + upstream.getAddress().getPort();
+        proxy = BlockingProxy.start(0, Collections.singletonList("ads.test"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stop() {
+        proxy.stop();
+        upstream.stop(0);
+    }
+
+    @Test
+    public void testForwardedInOriginFormWithoutHopByHopHeaders() throws IOException {
+        String response = send("GET " + origin + "/search?q=bmw HTTP/1.1\r\nHost: 127.0.0.1\r\n"
+                + "Proxy-Connection: keep-alive\r\n\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 200"), response);
+        assertTrue(response.endsWith("GET /search?q=bmw host=" + origin.substring(7)
+                + " origin=null proxy-connection=null body="), response);
+    }
+
+    @Test
+    public void testRepeatedResponseHeadersKeptApart() throws IOException {
+        String response = send("GET " + origin + "/ HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n");
+
+        assertTrue(response.contains("\r\nSet-cookie: a=1; Expires=Wed, 21 Oct 2026 07:28:00 GMT\r\n"), response);
+        assertTrue(response.contains("\r\nSet-cookie: b=2\r\n"), response);
+    }
+
+    @Test
+    public void testPatchWithOriginAndChunkedBody() throws IOException {
+        String response = send("PATCH " + origin + "/car/1 HTTP/1.1\r\nHost: 127.0.0.1\r\n"
+                + "Origin: http://ab.onliner.by\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "6\r\nprice=\r\n4\r\n1000\r\n0\r\n\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 200"), response);
+        assertTrue(response.endsWith("PATCH /car/1 host=" + origin.substring(7)
+                + " origin=http://ab.onliner.by proxy-connection=null body=price=1000"), response);
+    }
+
+    @Test
+    public void testPostWithLength() throws IOException {
+        String response = send("POST " + origin + "/form HTTP/1.1\r\nHost: 127.0.0.1\r\nContent-Length: 5\r\n\r\n"
+                + "a=b&c");
+
+        assertTrue(response.endsWith("POST /form host=" + origin.substring(7)
+                + " origin=null proxy-connection=null body=a=b&c"), response);
+    }
+
+    @Test
+    public void testChunkedResponsePassedAsIs() throws IOException {
+        String response = send("GET " + origin + "/chunked HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n");
+
+        assertTrue(response.toLowerCase().contains("\r\ntransfer-encoding: chunked\r\n"), response);
+        assertTrue(response.endsWith("\r\n0\r\n\r\n"), response);
+    }
+
+    @Test
+    public void testResponsesWithoutBody() throws IOException {
+        String head = send("HEAD " + origin + "/ HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n");
+        String noContent = send("GET " + origin + "/no-content HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n");
+        String notModified = send("GET " + origin + "/not-modified HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n");
+
+        assertTrue(head.startsWith("HTTP/1.1 200") && head.endsWith("\r\n\r\n"), head);
+        assertTrue(noContent.startsWith("HTTP/1.1 204") && noContent.endsWith("\r\n\r\n"), noContent);
+        assertTrue(notModified.startsWith("HTTP/1.1 304") && notModified.endsWith("\r\n\r\n"), notModified);
+    }
+
+    @Test
+    public void testBlockedHostAndSubdomains() throws IOException {
+        assertEquals(send("GET http://ads.test/counter.js HTTP/1.1\r\nHost: ads.test\r\n\r\n"),
+                "HTTP/1.1 204 No Content\r\nConnection: close\r\n\r\n");
+        assertEquals(send("CONNECT mc.ads.test:443 HTTP/1.1\r\nHost: mc.ads.test:443\r\n\r\n"),
+                "HTTP/1.1 403 Forbidden\r\nConnection: close\r\n\r\n");
+        assertFalse(send("GET http://notads.test/ HTTP/1.1\r\n\r\n").startsWith("HTTP/1.1 204"));
+    }
+
+    @Test
+    public void testMalformedRequests() throws IOException {
+        assertTrue(send("GET /relative HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n").startsWith("HTTP/1.1 400"));
+        assertTrue(send("GET\r\n\r\n").startsWith("HTTP/1.1 400"));
+    }
+
+    @Test
+    public void testTunnel() throws IOException {
+        String response = send("CONNECT " + origin.substring(7) + " HTTP/1.1\r\n\r\n"
+                + "GET /tunneled HTTP/1.1\r\nHost: 127.0.0.1\r\nConnection: close\r\n\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 200 Connection established\r\n\r\nHTTP/1.1 200"), response);
+        assertTrue(response.contains("GET /tunneled"), response);
+    }
+
+    /**
+     * @return everything the proxy answered until it closed the connection
+     */
+    private String send(String request) throws IOException {
+        String[] address = proxy.getAddress().split(":");
+        try (Socket socket = new Socket(address[0], Integer.parseInt(address[1]))) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(request.getBytes(ISO_8859_1));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            return new String(ByteStreams.toByteArray(in), ISO_8859_1);
+        }
+    }
+}
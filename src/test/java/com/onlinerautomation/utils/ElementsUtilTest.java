@@ -0,0 +1,47 @@
+package com.onlinerautomation.utils;
+
+import com.onlinerautomation.binder.LocatingElement;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactory;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+
+public class ElementsUtilTest {
+    private final AtomicInteger commands = new AtomicInteger();
+    private final WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{WebDriver.class}, (proxy, method, args) -> {
+                commands.incrementAndGet();
+                throw new UnsupportedOperationException(method.getName());
+            });
+
+    @Test
+    public void testKeyOfPageFactoryElementDoesNotLocateIt() {
+        Page page = PageFactory.initElements(driver, Page.class);
+
+        assertEquals(ElementsUtil.key(page.search, "visible"), "visible: DefaultElementLocator 'By.id: search'");
+        assertEquals(ElementsUtil.key(page.search, By.tagName("input"), "clickable"),
+                "clickable: DefaultElementLocator 'By.id: search' >> By.tagName: input");
+        assertEquals(commands.get(), 0);
+    }
+
+    @Test
+    public void testKeyOfGeneratedBindingDoesNotLocateIt() {
+        WebElement element = new LocatingElement((SearchContext) driver, By.cssSelector(".filter"));
+
+        assertEquals(ElementsUtil.key(element, "hidden"), "hidden: Located element for: By.cssSelector: .filter");
+        assertEquals(commands.get(), 0);
+    }
+
+    public static class Page {
+        @FindBy(id = "search")
+        WebElement search;
+    }
+}
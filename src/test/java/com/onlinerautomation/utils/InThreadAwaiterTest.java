@@ -0,0 +1,106 @@
+package com.onlinerautomation.utils;
+
+import org.awaitility.Duration;
+import org.awaitility.core.ConditionTimeoutException;
+import org.openqa.selenium.NoSuchElementException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * The same waits on both engines, in-thread one has to behave as Awaitility does
+ */
+public class InThreadAwaiterTest {
+    private AwaitEngine defaultEngine;
+
+    @DataProvider
+    public static Object[][] engines() {
+        return new Object[][]{{AwaitEngine.AWAITILITY}, {AwaitEngine.IN_THREAD}};
+    }
+
+    @BeforeMethod
+    public void keepDefaultEngine() {
+        defaultEngine = Await.getDefaultEngine();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreDefaultEngine() {
+        Await.setDefaultEngine(defaultEngine);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testForeverWaitsForCondition(AwaitEngine engine) {
+        long start = System.nanoTime();
+
+        await(engine).atMost(Duration.FOREVER).pollInterval(50).until(() -> elapsedMs(start) >= 300);
+
+        assertTrue(elapsedMs(start) >= 300);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testConditionBeforeAtLeastFails(AwaitEngine engine) {
+        ConditionTimeoutException e = expectThrows(ConditionTimeoutException.class,
+                () -> await(engine).atLeast(500).atMost(2000).pollInterval(50).until(() -> true));
+
+        assertTrue(e.getMessage().contains("earlier than expected minimum timeout 500 MILLISECONDS"), e.getMessage());
+    }
+
+    @Test(dataProvider = "engines")
+    public void testConditionAfterAtLeastPasses(AwaitEngine engine) {
+        long start = System.nanoTime();
+
+        await(engine).atLeast(200).atMost(2000).pollInterval(50).until(() -> elapsedMs(start) >= 400);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testIgnoredExceptionIsMismatch(AwaitEngine engine) {
+        AtomicInteger calls = new AtomicInteger();
+
+        await(engine).atMost(2000).pollInterval(50).until(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new NoSuchElementException("not yet");
+            }
+            return true;
+        });
+
+        assertEquals(calls.get(), 3);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testLastIgnoredExceptionIsTimeoutCause(AwaitEngine engine) {
+        ConditionTimeoutException e = expectThrows(ConditionTimeoutException.class,
+                () -> await(engine).atMost(300).pollInterval(50).ignoreException(IllegalStateException.class)
+                        .until(() -> {
+                            throw new IllegalStateException("still loading");
+                        }));
+
+        assertTrue(e.getCause() instanceof IllegalStateException, String.valueOf(e.getCause()));
+    }
+
+    @Test(dataProvider = "engines")
+    public void testOtherExceptionIsRethrown(AwaitEngine engine) {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+                () -> await(engine).atMost(2000).pollInterval(50).until(() -> {
+                    throw new IllegalArgumentException("broken");
+                }));
+
+        assertEquals(e.getMessage(), "broken");
+    }
+
+    private static Await await(AwaitEngine engine) {
+        Await.setDefaultEngine(engine);
+        return new Await().unrecorded();
+    }
+
+    private static long elapsedMs(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
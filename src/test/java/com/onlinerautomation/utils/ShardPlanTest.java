@@ -0,0 +1,106 @@
+package com.onlinerautomation.utils;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class ShardPlanTest {
+    private static final String TEST = ShardPlanTest.class.getName() + ".";
+
+    private Path dir;
+
+    @BeforeMethod
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("shards");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDir() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testLongestGoesToLeastLoadedShard() {
+        ShardPlan plan = ShardPlan.balance(estimates("a", 3, "b", 10, "c", 5, "d", 8, "e", 4), 2);
+
+        assertEquals(plan.getCount(), 2);
+        // b 10 and e 4 in the first shard, d 8, c 5 and a 3 in the second
+        assertEquals(plan.getLoad(0), 14);
+        assertEquals(plan.getLoad(1), 16);
+    }
+
+    @Test
+    public void testLoadedShardRunsItsTests() {
+        ShardPlan.balance(estimates("a", 3, "b", 10, "c", 5, "d", 8, "e", 4), 2).save(dir.resolve("plan.properties"));
+
+        ShardPlan first = ShardPlan.load(dir.resolve("plan.properties"), 0);
+        ShardPlan second = ShardPlan.load(dir.resolve("plan.properties"), 1);
+
+        assertTrue(first.isSharded());
+        assertEquals(second.getCount(), 2);
+        assertEquals(second.getLoad(0), 14);
+        assertEquals(second.getLoad(1), 16);
+        assertTrue(first.runs(TEST + "b") && first.runs(TEST + "e"));
+        assertTrue(second.runs(TEST + "a") && second.runs(TEST + "c") && second.runs(TEST + "d"));
+        assertFalse(first.runs(TEST + "a") || first.runs(TEST + "c") || first.runs(TEST + "d"));
+        assertFalse(second.runs(TEST + "b") || second.runs(TEST + "e"));
+        assertTrue(first.runs(TEST + "new"));
+        assertFalse(second.runs(TEST + "new"));
+    }
+
+    @Test
+    public void testRowsOfMethodSplitBetweenShards() throws NoSuchMethodException {
+        Method method = ShardPlanTest.class.getMethod("testRowsOfMethodSplitBetweenShards");
+        String id = TestIds.of(ShardPlanTest.class, method.getName());
+        String name = method.getName();
+        ShardPlan.balance(estimates("b", 1, name + "[1000, 2000]", 10, name + "[2000, 3000]", 8), 2)
+                .save(dir.resolve("plan.properties"));
+        Object[][] rows = {{1000, 2000}, {2000, 3000}, {3000, 4000}};
+
+        ShardPlan first = ShardPlan.load(dir.resolve("plan.properties"), 0);
+        ShardPlan second = ShardPlan.load(dir.resolve("plan.properties"), 1);
+
+        assertTrue(first.runsMethod(id) && second.runsMethod(id));
+        assertTrue(first.runsMethod(TEST + "new"));
+        assertFalse(second.runsMethod(TEST + "new"));
+        assertEquals(Arrays.deepToString(first.filterRows(method, rows)), "[[1000, 2000], [3000, 4000]]");
+        assertEquals(Arrays.deepToString(second.filterRows(method, rows)), "[[2000, 3000]]");
+    }
+
+    @Test
+    public void testShardsOutOfRange() {
+        ShardPlan.balance(estimates("a", 1), 2).save(dir.resolve("plan.properties"));
+
+        expectThrows(IllegalArgumentException.class, () -> ShardPlan.balance(estimates("a", 1), 0));
+        expectThrows(IllegalArgumentException.class, () -> ShardPlan.load(dir.resolve("plan.properties"), 2));
+        expectThrows(IllegalArgumentException.class, () -> ShardPlan.load(dir.resolve("plan.properties"), -1));
+    }
+
+    /**
+     * @param namesAndEstimates method name and its milliseconds, one after another
+     */
+    private static Map<String, Long> estimates(Object... namesAndEstimates) {
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndEstimates.length; i += 2) {
+            estimates.put(TEST + namesAndEstimates[i], ((Integer) namesAndEstimates[i + 1]).longValue());
+        }
+        return estimates;
+    }
+}
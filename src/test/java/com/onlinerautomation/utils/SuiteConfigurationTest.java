@@ -0,0 +1,81 @@
+package com.onlinerautomation.utils;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Layers of configuration from <code>configuration/layers.properties</code>, environment variables are not covered
+ * as they can't be set from the JVM
+ */
+public class SuiteConfigurationTest {
+    private static final String LAYERS = "/configuration/layers.properties";
+
+    @AfterMethod(alwaysRun = true)
+    public void clearSystemProperties() {
+        System.clearProperty("layers.system");
+        System.clearProperty("layers.unfiltered.system");
+        System.clearProperty("capability.browserName");
+    }
+
+    @Test
+    public void testDefaultsOverriddenByApplicationProperties() throws IOException {
+        SuiteConfiguration config = new SuiteConfiguration(LAYERS);
+
+        assertEquals(config.getInt("crawl.max.pages"), 5);
+        assertEquals(config.getString("test.order"), "auto");
+        assertEquals(config.getString("layers.system"), "application");
+    }
+
+    @Test
+    public void testUnfilteredValuesIgnored() throws IOException {
+        System.setProperty("layers.unfiltered.system", "${layers.not.given}");
+
+        SuiteConfiguration config = new SuiteConfiguration(LAYERS);
+
+        assertEquals(config.getInt("crawl.queue.size"), 256);
+        assertEquals(config.getString("layers.unfiltered.system"), "application");
+    }
+
+    @Test
+    public void testCapabilitiesFileOverridesApplicationProperties() throws IOException {
+        SuiteConfiguration config = new SuiteConfiguration(LAYERS);
+
+        assertEquals(config.getString("capability.platformName"), "LINUX");
+        assertEquals(config.getCapabilities().getBrowserName(), "firefox");
+        assertEquals(config.getCapabilities().getCapability("platformName"), "LINUX");
+        assertEquals(config.getCapabilities().getCapability("acceptInsecureCerts"), false);
+    }
+
+    @Test
+    public void testSystemPropertiesOverrideEverything() throws IOException {
+        System.setProperty("layers.system", "system");
+        System.setProperty("capability.browserName", "chrome");
+
+        SuiteConfiguration config = new SuiteConfiguration(LAYERS);
+
+        assertEquals(config.getString("layers.system"), "system");
+        assertEquals(config.getCapabilities().getBrowserName(), "chrome");
+    }
+
+    @Test
+    public void testMissingResourceRejected() {
+        expectThrows(FileNotFoundException.class, () -> new SuiteConfiguration("/configuration/missing.properties"));
+    }
+
+    @Test
+    public void testInvalidValues() throws IOException {
+        SuiteConfiguration config = new SuiteConfiguration(LAYERS);
+
+        assertFalse(config.hasProperty("layers.missing"));
+        expectThrows(IllegalStateException.class, () -> config.getString("layers.missing"));
+        expectThrows(IllegalArgumentException.class, () -> config.getInt("capability.platformName"));
+        expectThrows(IllegalArgumentException.class, () -> config.getBoolean("layers.system"));
+    }
+}
@@ -0,0 +1,123 @@
+package com.onlinerautomation.utils;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestHistoryTest {
+    private static final String TEST = "com.onlinerautomation.test.CarMarketTest.testMinPrice";
+
+    private Path dir;
+
+    @BeforeMethod
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("history");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDir() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testEstimateIsMedian() {
+        TestHistory history = new TestHistory();
+        history.record(TEST, 300);
+        history.record(TEST, 100);
+        history.record(TEST, 5000);
+
+        assertEquals(history.estimate(TEST), 300);
+        assertEquals(history.estimate(TEST + "[1000, 1000]"), -1);
+    }
+
+    @Test
+    public void testOnlyLastRunsKept() throws IOException {
+        TestHistory history = new TestHistory();
+        for (int run = 1; run <= TestHistory.CAPACITY + 2; run++) {
+            history.record(TEST, run * 100);
+        }
+        history.save(dir.resolve("history.properties"));
+
+        assertEquals(history.estimate(TEST), 700);
+        assertTrue(read("history.properties").contains("=300,400,500,600,700,800,900,1000\n"),
+                read("history.properties"));
+    }
+
+    @Test
+    public void testLastFailure() {
+        TestHistory history = new TestHistory();
+        history.record(TEST, 100, true);
+        history.record(TEST, 100);
+        history.record(TEST, 100);
+
+        assertEquals(history.lastFailure(TEST), 2);
+        history.record(TEST, 100, true);
+        assertEquals(history.lastFailure(TEST), 0);
+        for (int run = 0; run < TestHistory.CAPACITY; run++) {
+            history.record(TEST, 100);
+        }
+        assertEquals(history.lastFailure(TEST), -1);
+        assertEquals(history.lastFailure(TEST + "[1000, 1000]"), -1);
+    }
+
+    @Test
+    public void testSavedRunsLoadedInOrder() throws IOException {
+        Files.write(dir.resolve("history.properties"), (escape(TEST + "[1000, 1000]") + "=5120,4870F,4930\n"
+                + TEST + "=200\n").getBytes(UTF_8));
+        TestHistory history = new TestHistory();
+        history.load(dir.resolve("history.properties"));
+        history.save(dir.resolve("saved.properties"));
+        TestHistory loaded = new TestHistory();
+        loaded.load(dir.resolve("saved.properties"));
+
+        for (TestHistory h : Arrays.asList(history, loaded)) {
+            assertEquals(h.estimate(TEST + "[1000, 1000]"), 4930);
+            assertEquals(h.lastFailure(TEST + "[1000, 1000]"), 1);
+            assertEquals(h.estimate(TEST), 200);
+            assertEquals(h.lastFailure(TEST), -1);
+        }
+        assertTrue(read("saved.properties").contains("=5120,4870F,4930\n"), read("saved.properties"));
+    }
+
+    @Test
+    public void testMissingFileIgnored() {
+        TestHistory history = new TestHistory();
+        history.load(dir.resolve("missing.properties"));
+
+        assertTrue(history.isEmpty());
+    }
+
+    @Test
+    public void testIdsOfMethodAndItsRows() {
+        TestHistory history = new TestHistory();
+        history.record(TEST + "[2000, 1000]", 100);
+        history.record(TEST, 100);
+        history.record(TEST + "[1000, 1000]", 100);
+        history.record(TEST + "Range", 100);
+
+        assertEquals(history.ids(TEST), Arrays.asList(TEST, TEST + "[1000, 1000]", TEST + "[2000, 1000]"));
+        assertEquals(history.typicalEstimate(Arrays.asList(TEST, "unknown"), 50), 100);
+        assertEquals(history.typicalEstimate(Arrays.asList("unknown"), 50), 50);
+    }
+
+    private String read(String file) throws IOException {
+        return new String(Files.readAllBytes(dir.resolve(file)), UTF_8);
+    }
+
+    private static String escape(String key) {
+        return key.replace(" ", "\\ ");
+    }
+}
@@ -0,0 +1,68 @@
+package com.onlinerautomation.verification;
+
+import com.onlinerautomation.data.CarPreview;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+
+public class CarInfoComparatorTest {
+
+    @DataProvider
+    public static Object[][] fields() {
+        return new Object[][]{
+                {"title", "BMW X5", "BMW X5", true},
+                {"title", "BMW  x5", "bmw X5 ", true},
+                {"title", "BMW X5", "BMW X5 M", false},
+                {"title", "BMW X5 M", "BMW X5", false},
+                {"year", "2015", "2015", true},
+                {"year", "2015", "15", false},
+                {"year", "15", "2015", false},
+                {"mileage", "310 000 км", "310 000 км", true},
+                {"mileage", "310 000 км", "310000 км", true},
+                {"mileage", "310 000 км", "10 000 км", false},
+                {"mileage", "10 000 км", "310 000 км", false},
+                {"description", "Один хозяин, полная история...", "Один хозяин, полная история обслуживания", true},
+                {"description", "Один хозяин, полная история…", "Один  хозяин, полная история обслуживания", true},
+                {"description", "Один хозяин", "Один хозяин, полная история обслуживания", false},
+                {"description", "Один хозяин, полная история обслуживания", "Один хозяин", false},
+                {"description", "Два хозяина...", "Один хозяин, полная история обслуживания", false},
+                {"description", "...", "Один хозяин", false},
+                {"title", "BMW X5...", "BMW X5 M", false},
+                {"description", "", "", true},
+                {"description", "", "Один хозяин", false},
+        };
+    }
+
+    @Test(dataProvider = "fields")
+    public void testMatches(String field, String preview, String announcement, boolean matched) {
+        assertEquals(CarInfoComparator.matches(field, preview, announcement), matched,
+                field + ": [" + preview + "] vs [" + announcement + "]");
+    }
+
+    @Test
+    public void testCompareFieldsInOrder() {
+        CarPreview preview = CarPreview.builder()
+                .title("BMW X5")
+                .year("2015")
+                .mileage("310 000 км")
+                .description("Один хозяин...")
+                .build();
+        Map<String, String> details = new HashMap<>();
+        details.put("title", "BMW X5 M");
+        details.put("year", "2015");
+        details.put("description", "Один хозяин, полная история обслуживания");
+        List<CarInfoComparator.FieldDiff> diffs = CarInfoComparator.compare(preview, details);
+
+        assertEquals(diffs.size(), CarInfoComparator.FIELDS.size());
+        assertEquals(diffs.get(0), new CarInfoComparator.FieldDiff("title", "BMW X5", "BMW X5 M", false));
+        assertEquals(diffs.get(1), new CarInfoComparator.FieldDiff("year", "2015", "2015", true));
+        assertEquals(diffs.get(2), new CarInfoComparator.FieldDiff("mileage", "310 000 км", "", false));
+        assertEquals(diffs.get(3).getField(), "description");
+        assertEquals(diffs.get(3).isMatched(), true);
+    }
+}
@@ -0,0 +1,76 @@
+package utils.crawler;
+
+import com.onlinerautomation.crawler.ListingCrawler;
+import com.onlinerautomation.page.AutoMarketPage;
+import com.onlinerautomation.page.HomePage;
+import com.onlinerautomation.page.LeftMenu;
+import com.onlinerautomation.utils.BlockingProxy;
+import com.onlinerautomation.utils.DriverTier;
+import com.onlinerautomation.utils.SessionPool;
+import com.onlinerautomation.utils.SuiteConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import utils.fixtures.FixtureServer;
+
+import java.nio.file.Paths;
+
+import static com.onlinerautomation.utils.WebDriverManager.setupWebDriver;
+
+/**
+ * Crawls the ab.onliner.by listing of <code>site.url</code> with {@link ListingCrawler}:
+ * <ol>
+ * <li>opens the listing from the home page and applies <code>crawl.filters</code>, comma separated
+ * <code>GROUP:name</code> of {@link LeftMenu.FilterGroup}, e.g. <code>BODY_TYPE:Седан,FUEL:Дизель</code></li>
+ * <li>streams rows of up to <code>crawl.max.pages</code> listing pages to <code>crawl.output</code> JSON lines and
+ * checkpoints to <code>crawl.checkpoint</code>, started again with the same filters it resumes</li>
+ * </ol>
+ * Listing rows don't depend on layout, so the crawl runs in HtmlUnit unless <code>driver.tier</code> is browser.
+ */
+@Slf4j
+public class CrawlLauncher {
+
+    public static void main(String[] args) throws Exception {
+        SuiteConfiguration config = SuiteConfiguration.get();
+        String siteUrl = config.getString("site.url");
+        String filters = config.getString("crawl.filters").trim();
+        ListingCrawler crawler = new ListingCrawler(Paths.get(config.getString("crawl.output")),
+                Paths.get(config.getString("crawl.checkpoint")), config.getInt("crawl.queue.size"),
+                config.getInt("crawl.max.pages"));
+
+        DriverTier tier = config.getDriverTierRouting() == DriverTier.Routing.BROWSER
+                ? DriverTier.BROWSER : DriverTier.HTMLUNIT;
+        if (tier == DriverTier.BROWSER) {
+            setupWebDriver(config);
+        }
+        FixtureServer fixtureServer = FixtureServer.isLocal(siteUrl)
+                ? FixtureServer.start(FixtureServer.portOf(siteUrl)) : null;
+        BlockingProxy proxy = config.getBoolean("proxy.enabled") ? BlockingProxy.start(config) : null;
+        Capabilities capabilities = proxy != null ? proxy.configure(config.getCapabilities()) : config.getCapabilities();
+        try {
+            WebDriver driver = SessionPool.DEFAULT.lease(tier.capabilities(capabilities));
+            driver.get(siteUrl);
+            AutoMarketPage listing = new HomePage(driver).openAnnouncementCarPage();
+            if (!filters.isEmpty()) {
+                for (String filter : filters.split(",")) {
+                    String[] groupAndName = filter.split(":", 2);
+                    if (groupAndName.length != 2) {
+                        throw new IllegalArgumentException("Filter [" + filter + "] of crawl.filters is not GROUP:name");
+                    }
+                    listing.setCarFilter(LeftMenu.FilterGroup.valueOf(groupAndName[0].trim().toUpperCase()),
+                            groupAndName[1].trim());
+                }
+            }
+            log.info("Crawl result: " + crawler.crawl(listing, filters));
+        } finally {
+            SessionPool.DEFAULT.dismissAll();
+            if (proxy != null) {
+                proxy.stop();
+            }
+            if (fixtureServer != null) {
+                fixtureServer.stop();
+            }
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,159 @@
+package utils.fixtures;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded HTTP server which serves recorded onliner.by pages from <code>/fixtures</code> test resources, so tests
+ * run offline with page loads independent of the live site.
+ * <p>
+ * Pages of other onliner hosts are served under the host name, e.g. ab.onliner.by listing is
+ * <code>/ab.onliner.by/</code>. Directory requests get <code>index.html</code>, dynamic paths like announcement ids
+ * are mapped to a single fixture by {@link #ROUTES}. Resources are read once and kept in memory.
+ */
+@Slf4j
+public class FixtureServer {
+    private static final String FIXTURES = "/fixtures";
+    private static final Map<Pattern, String> ROUTES = new LinkedHashMap<>();
+    private static final Map<String, String> CONTENT_TYPES = new LinkedHashMap<>();
+
+    static {
+        ROUTES.put(Pattern.compile("/ab\\.onliner\\.by/car/\\d+/?"), "/ab.onliner.by/car.html");
+        ROUTES.put(Pattern.compile("/catalog\\.onliner\\.by/.+"), "/catalog.onliner.by/product.html");
+        CONTENT_TYPES.put(".html", "text/html; charset=utf-8");
+        CONTENT_TYPES.put(".js", "application/javascript; charset=utf-8");
+        CONTENT_TYPES.put(".css", "text/css; charset=utf-8");
+        CONTENT_TYPES.put(".png", "image/png");
+        CONTENT_TYPES.put(".svg", "image/svg+xml");
+    }
+
+    private final ConcurrentMap<String, Optional<byte[]>> resources = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private FixtureServer(HttpServer server, int threads) {
+        this.server = server;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "fixture-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Start server on loopback interface
+     *
+     * @param port port to listen, 0 picks a free one
+     */
+    public static FixtureServer start(int port) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            FixtureServer fixtureServer = new FixtureServer(server, Runtime.getRuntime().availableProcessors() * 2);
+            server.start();
+            log.info("Fixture server started at " + fixtureServer.getUrl());
+            return fixtureServer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start fixture server on port " + port, e);
+        }
+    }
+
+    /**
+     * @return true if the url points to loopback interface, i.e. pages should be served by the fixture server
+     */
+    public static boolean isLocal(String url) {
+        if (url == null) {
+            return false;
+        }
+        String host = URI.create(url).getHost();
+        return "localhost".equalsIgnoreCase(host) || "127.0.0.1".equals(host);
+    }
+
+    public static int portOf(String url) {
+        int port = URI.create(url).getPort();
+        return port == -1 ? 80 : port;
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        log.info("Fixture server stopped");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = resolve(exchange.getRequestURI().getPath());
+            Optional<byte[]> body = resources.computeIfAbsent(path, this::read);
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+            } else if (body.isPresent()) {
+                exchange.getResponseHeaders().set("Content-Type", contentType(path));
+                exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+                if ("HEAD".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(200, -1);
+                } else {
+                    exchange.sendResponseHeaders(200, body.get().length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body.get());
+                    }
+                }
+            } else {
+                log.debug("Fixture not found: " + exchange.getRequestURI());
+                exchange.sendResponseHeaders(404, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String resolve(String path) {
+        for (Map.Entry<Pattern, String> route : ROUTES.entrySet()) {
+            if (route.getKey().matcher(path).matches()) {
+                return route.getValue();
+            }
+        }
+        return path.endsWith("/") ? path + "index.html" : path;
+    }
+
+    private Optional<byte[]> read(String path) {
+        if (path.contains("..")) {
+            return Optional.empty();
+        }
+        try (InputStream in = FixtureServer.class.getResourceAsStream(FIXTURES + path)) {
+            return in == null ? Optional.empty() : Optional.of(ByteStreams.toByteArray(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read fixture " + path, e);
+        }
+    }
+
+    private static String contentType(String path) {
+        return CONTENT_TYPES.entrySet().stream()
+                .filter(type -> path.endsWith(type.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse("application/octet-stream");
+    }
+}
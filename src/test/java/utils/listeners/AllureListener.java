@@ -1,40 +1,99 @@
 package utils.listeners;
 
-import com.onlinerautomation.TestBase;
-import io.qameta.allure.Attachment;
+import com.onlinerautomation.utils.DriverContext;
+import io.qameta.allure.listener.FixtureLifecycleListener;
+import io.qameta.allure.model.FixtureResult;
+import io.qameta.allure.model.Status;
+import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestResult;
-import org.testng.TestListenerAdapter;
 
-public class AllureListener extends TestListenerAdapter {
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attaches screenshot of the browser to failed and skipped tests and failed configuration methods.
+ * <p>
+ * Screenshot of a test is taken after the test method is invoked, while its Allure result is still open, it is
+ * finished in onTestFailure/onTestSkipped which follow. Results of configuration methods are finished by the invoked
+ * method listener of Allure and TestNG doesn't keep order of invoked method listeners, so their screenshots are taken
+ * when Allure stops the failed fixture: the listener is also registered as Allure {@link FixtureLifecycleListener}
+ * through ServiceLoader. Writing is done by {@link ScreenshotPipeline}.
+ */
+@Slf4j
+public class AllureListener implements IInvokedMethodListener, ISuiteListener, FixtureLifecycleListener {
+    private static final String SCREENSHOT_NAME = "Failed test screenshot";
+    private static final long FLUSH_TIMEOUT_SECONDS = 30;
+
     @Override
-    public void onTestFailure(ITestResult result) {
-        takeScreenshot(result);
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
     }
 
     @Override
-    public void onTestSkipped(ITestResult result) {
-        takeScreenshot(result);
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        int status = testResult.getStatus();
+        if (method.isTestMethod() && (status == ITestResult.FAILURE || status == ITestResult.SKIP)
+                && testResult.getMethod().getGroups().length == 0) {
+            String screenshot = takeScreenshot(testResult.getMethod().getMethodName());
+            if (screenshot != null) {
+                Screenshots.PIPELINE.submit(SCREENSHOT_NAME, screenshot);
+            }
+        }
     }
 
+    /**
+     * Called on the thread of the configuration method, Allure has already removed the fixture from the running
+     * results, so the screenshot is attached to the fixture itself
+     */
     @Override
-    public void onConfigurationFailure(ITestResult result) {
-        takeScreenshot(result);
+    public void beforeFixtureStop(FixtureResult result) {
+        if (result.getStatus() == Status.FAILED || result.getStatus() == Status.BROKEN) {
+            String screenshot = takeScreenshot(result.getName());
+            if (screenshot != null) {
+                Screenshots.PIPELINE.submit(result, SCREENSHOT_NAME, screenshot);
+            }
+        }
     }
 
-    @Attachment(value = "Failed test screenshot", type = "image/png")
-    private byte[] saveScreenshot(byte[] screenshot) {
-        return screenshot;
+    @Override
+    public void onStart(ISuite suite) {
     }
 
-    private void takeScreenshot(ITestResult result) {
-        if (result.getMethod().getGroups().length == 0) {
-            Object currentClass = result.getInstance();
-            WebDriver driver = ((TestBase) currentClass).getDriver();
-            byte[] srcFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-            saveScreenshot(srcFile);
+    @Override
+    public void onFinish(ISuite suite) {
+        Screenshots.PIPELINE.flush(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Listener is called on the thread which ran the method, so the driver of that thread is the session of the method
+     *
+     * @return base64 screenshot or null if the session can't take it
+     */
+    private String takeScreenshot(String methodName) {
+        WebDriver driver = DriverContext.getDriver();
+        // HtmlUnit sessions don't render pages
+        if (!(driver instanceof TakesScreenshot)) {
+            return null;
+        }
+        try {
+            return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+        } catch (WebDriverException e) {
+            log.warn("Could not take screenshot of " + methodName + ": " + e.getMessage());
+            return null;
         }
     }
+
+    /**
+     * The pipeline is created on first use: Allure creates this listener while creating its lifecycle, which the
+     * pipeline needs
+     */
+    private static class Screenshots {
+        static final ScreenshotPipeline PIPELINE = ScreenshotPipeline.fromConfiguration();
+    }
 }
@@ -0,0 +1,176 @@
+package utils.listeners;
+
+import com.onlinerautomation.utils.CommandTracer;
+import com.onlinerautomation.utils.DriverContext;
+import com.onlinerautomation.utils.DriverDecorator;
+import com.onlinerautomation.utils.SuiteConfiguration;
+import io.qameta.allure.Allure;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Reports driver commands recorded by {@link CommandTracer}: a summary of every test is attached to its Allure result,
+ * commands of the run are written to <code>target/command-trace</code> (<code>command.trace.dir</code> of
+ * {@link SuiteConfiguration}) when the suite finishes:
+ * <ul>
+ * <li><code>command-time.folded</code> - collapsed stacks weighted by latency in microseconds, input of
+ * <code>flamegraph.pl</code> or speedscope</li>
+ * <li><code>command-count.folded</code> - the same stacks weighted by command count</li>
+ * <li><code>commands.csv</code> - run summary by stack, command and locator, the longest total first</li>
+ * <li><code>tests.csv</code> - commands and their total latency per test</li>
+ * </ul>
+ * A stack is the project methods which sent the command followed by the command and its locator, e.g.
+ * <code>CarMarketTest.testFilterByCarBodyTypes;AutoMarketPage.varifyCarCountForFilter;LeftMenu.getCarCount;
+ * WebElement.getText;By.cssSelector: .count</code>. Commands of before methods belong to the test which follows
+ * them, commands of after methods are not reported.
+ */
+@Slf4j
+public class CommandTraceListener implements IInvokedMethodListener, ISuiteListener {
+    private static final int TOP_STACKS_LOGGED = 10;
+    private static final Map<String, Total> run = new ConcurrentHashMap<>();
+    private static final Queue<String> tests = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+    }
+
+    /**
+     * Attach before Allure listener finishes the test result, it is done in onTestSuccess/onTestFailure which follow
+     */
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        WebDriver driver = DriverContext.getDriver();
+        CommandTracer tracer = method.isTestMethod() && driver != null
+                ? DriverDecorator.find(driver, CommandTracer.class) : null;
+        if (tracer == null) {
+            return;
+        }
+        List<CommandTracer.Command> commands = tracer.drain();
+        if (commands.isEmpty()) {
+            return;
+        }
+        Map<String, Total> test = new LinkedHashMap<>();
+        for (CommandTracer.Command command : commands) {
+            String key = stack(command);
+            test.computeIfAbsent(key, k -> new Total()).add(command);
+            run.computeIfAbsent(key, k -> new Total()).add(command);
+        }
+        long totalMicros = commands.stream().mapToLong(CommandTracer.Command::getLatencyMicros).sum();
+        long failed = commands.stream().filter(CommandTracer.Command::isFailed).count();
+        tests.add(csv(testResult.getTestClass().getRealClass().getSimpleName() + "."
+                + testResult.getMethod().getMethodName()) + "," + csv(Arrays.toString(testResult.getParameters()))
+                + "," + commands.size() + "," + failed + "," + TimeUnit.MICROSECONDS.toMillis(totalMicros));
+        Allure.addAttachment("Driver commands", "text/csv", summaryCsv(test), ".csv");
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (run.isEmpty()) {
+            return;
+        }
+        log.info("Top driver command stacks of the run:\n" + sorted(run).stream()
+                .limit(TOP_STACKS_LOGGED)
+                .map(entry -> TimeUnit.MICROSECONDS.toMillis(entry.getValue().micros) + "ms in "
+                        + entry.getValue().count + " commands - " + entry.getKey())
+                .collect(Collectors.joining("\n")));
+        Path dir = Paths.get(SuiteConfiguration.get().getString("command.trace.dir"));
+        try {
+            Files.createDirectories(dir);
+            StringBuilder time = new StringBuilder();
+            StringBuilder count = new StringBuilder();
+            for (Map.Entry<String, Total> entry : sorted(run)) {
+                time.append(entry.getKey()).append(' ').append(entry.getValue().micros).append('\n');
+                count.append(entry.getKey()).append(' ').append(entry.getValue().count).append('\n');
+            }
+            Files.write(dir.resolve("command-time.folded"), time.toString().getBytes(StandardCharsets.UTF_8));
+            Files.write(dir.resolve("command-count.folded"), count.toString().getBytes(StandardCharsets.UTF_8));
+            Files.write(dir.resolve("commands.csv"), summaryCsv(run).getBytes(StandardCharsets.UTF_8));
+            Files.write(dir.resolve("tests.csv"), ("test,parameters,commands,failed,total ms\n"
+                    + String.join("\n", tests) + "\n").getBytes(StandardCharsets.UTF_8));
+            log.info("Driver command trace written to " + dir.toAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write driver command trace to " + dir, e);
+        }
+    }
+
+    /**
+     * @return collapsed stack of the command, <code>;</code> separates frames and can't be part of a locator
+     */
+    private static String stack(CommandTracer.Command command) {
+        String stack = command.getStack() + ";" + command.getType();
+        return command.getLocator().isEmpty() ? stack
+                : stack + ";" + command.getLocator().replace(';', ',').replaceAll("\\s+", " ");
+    }
+
+    private static List<Map.Entry<String, Total>> sorted(Map<String, Total> totals) {
+        return totals.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Total> entry) -> entry.getValue().micros)
+                        .reversed())
+                .collect(Collectors.toList());
+    }
+
+    private static String summaryCsv(Map<String, Total> totals) {
+        StringBuilder csv = new StringBuilder("stack,command,locator,commands,failed,total ms,max ms\n");
+        for (Map.Entry<String, Total> entry : sorted(totals)) {
+            Total total = entry.getValue();
+            csv.append(csv(total.stack)).append(',')
+                    .append(csv(total.type)).append(',')
+                    .append(csv(total.locator)).append(',')
+                    .append(total.count).append(',')
+                    .append(total.failed).append(',')
+                    .append(TimeUnit.MICROSECONDS.toMillis(total.micros)).append(',')
+                    .append(TimeUnit.MICROSECONDS.toMillis(total.maxMicros)).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String csv(String value) {
+        return "\"" + String.valueOf(value).replace("\"", "\"\"") + "\"";
+    }
+
+    private static class Total {
+        private String stack;
+        private String type;
+        private String locator;
+        private long count;
+        private long failed;
+        private long micros;
+        private long maxMicros;
+
+        synchronized void add(CommandTracer.Command command) {
+            stack = command.getStack();
+            type = command.getType();
+            locator = command.getLocator();
+            count++;
+            failed += command.isFailed() ? 1 : 0;
+            micros += command.getLatencyMicros();
+            maxMicros = Math.max(maxMicros, command.getLatencyMicros());
+        }
+    }
+}
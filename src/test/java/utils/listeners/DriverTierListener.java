@@ -0,0 +1,145 @@
+package utils.listeners;
+
+import com.onlinerautomation.utils.DriverContext;
+import com.onlinerautomation.utils.DriverTier;
+import com.onlinerautomation.utils.SuiteConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link DriverTier}s: wall time and memory allocated on the test thread of every test, measured by
+ * {@link TestTiming}.
+ * <p>
+ * Summary per tier is logged and written to <code>target/driver-tiers/driver-tiers.csv</code>
+ * (<code>driver.tier.report.dir</code> of {@link SuiteConfiguration}) when the suite finishes. Memory of the browser
+ * process is outside of the JVM and not counted, HtmlUnit parses and runs pages on the test thread so its cost is.
+ */
+@Slf4j
+public class DriverTierListener implements IInvokedMethodListener, ISuiteListener {
+    private static final Map<DriverTier, TierStats> tiers = new EnumMap<>(DriverTier.class);
+    private final TestTiming timing = new TestTiming();
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        timing.beforeInvocation(method);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        TestTiming.Measured test = timing.afterInvocation(method, testResult);
+        WebDriver driver = DriverContext.getDriver();
+        if (test == null || driver == null) {
+            return;
+        }
+        synchronized (tiers) {
+            tiers.computeIfAbsent(DriverTier.of(driver), tier -> new TierStats())
+                    .add(test.getWallNanos(), test.getAllocatedBytes(), !test.isFailed());
+        }
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        StringBuilder csv = new StringBuilder("tier,tests,failed,total ms,avg ms,max ms,avg allocated MB,"
+                + "max allocated MB\n");
+        synchronized (tiers) {
+            if (tiers.isEmpty()) {
+                return;
+            }
+            StringBuilder report = new StringBuilder("Driver tiers:");
+            tiers.forEach((tier, stats) -> {
+                report.append("\n").append(tier).append(": ").append(stats);
+                csv.append(tier).append(',').append(stats.toCsv()).append('\n');
+            });
+            report.append("\nPeak heap used: ").append(peakHeapBytes() >> 20).append(" MB");
+            log.info(report.toString());
+        }
+        Path dir = Paths.get(SuiteConfiguration.get().getString("driver.tier.report.dir"));
+        try {
+            Files.createDirectories(dir);
+            Files.write(dir.resolve("driver-tiers.csv"), csv.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write driver tier report to " + dir, e);
+        }
+    }
+
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static class TierStats {
+        private int tests;
+        private int failed;
+        private long totalNanos;
+        private long maxNanos;
+        private long totalAllocated;
+        private long maxAllocated;
+        private boolean allocationCounted = true;
+
+        void add(long wallNanos, long allocated, boolean success) {
+            tests++;
+            if (!success) {
+                failed++;
+            }
+            totalNanos += wallNanos;
+            maxNanos = Math.max(maxNanos, wallNanos);
+            if (allocated < 0) {
+                allocationCounted = false;
+            }
+            totalAllocated += allocated;
+            maxAllocated = Math.max(maxAllocated, allocated);
+        }
+
+        private long avgMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos / tests);
+        }
+
+        private String avgAllocatedMb() {
+            return allocationCounted ? String.valueOf((totalAllocated / tests) >> 20) : "";
+        }
+
+        private String maxAllocatedMb() {
+            return allocationCounted ? String.valueOf(maxAllocated >> 20) : "";
+        }
+
+        String toCsv() {
+            return tests + "," + failed + "," + TimeUnit.NANOSECONDS.toMillis(totalNanos) + "," + avgMillis() + ","
+                    + TimeUnit.NANOSECONDS.toMillis(maxNanos) + "," + avgAllocatedMb() + "," + maxAllocatedMb();
+        }
+
+        @Override
+        public String toString() {
+            return tests + " tests, " + failed + " failed, avg " + avgMillis() + "ms, max "
+                    + TimeUnit.NANOSECONDS.toMillis(maxNanos) + "ms"
+                    + (allocationCounted ? ", allocated avg " + avgAllocatedMb() + " MB, max " + maxAllocatedMb()
+                    + " MB" : "");
+        }
+    }
+}
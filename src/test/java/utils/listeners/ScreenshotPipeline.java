@@ -0,0 +1,191 @@
+package utils.listeners;
+
+import com.onlinerautomation.utils.SuiteConfiguration;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureConstants;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.WithAttachments;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Writes screenshots to Allure off the test thread.
+ * <p>
+ * Test thread only hands over base64 screenshot as the browser returned it and registers the attachment in the
+ * running test or the given result. A single worker decodes it, downscales it to <code>maxWidth</code> if set and
+ * writes it to Allure results.
+ * Screenshots are dropped when <code>queueSize</code> of them wait for the worker or the run byte budget is spent,
+ * the test thread never writes them itself.
+ */
+@Slf4j
+class ScreenshotPipeline {
+    private static final String TYPE = "image/png";
+    private static final String EXTENSION = "png";
+
+    private final AllureLifecycle lifecycle;
+    private final int maxWidth;
+    private final Semaphore queueSlots;
+    private final AtomicLong remainingBytes;
+    private final ThreadPoolExecutor executor;
+    private final Phaser pending = new Phaser(1);
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final AtomicLong writtenBytes = new AtomicLong();
+
+    /**
+     * @param queueSize    screenshots waiting to be written
+     * @param maxRunBytes  budget of decoded screenshot bytes of the run
+     * @param maxWidth     screenshots wider than that are downscaled, 0 keeps the original size
+     */
+    ScreenshotPipeline(AllureLifecycle lifecycle, int queueSize, long maxRunBytes, int maxWidth) {
+        this.lifecycle = lifecycle;
+        this.maxWidth = maxWidth;
+        this.queueSlots = new Semaphore(queueSize);
+        this.remainingBytes = new AtomicLong(maxRunBytes);
+        // the queue is bounded by the slots, taken before the attachment is registered so a queued one is never lost
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    static ScreenshotPipeline fromConfiguration() {
+        SuiteConfiguration config = SuiteConfiguration.get();
+        return new ScreenshotPipeline(Allure.getLifecycle(),
+                config.getInt("screenshot.queue.size"),
+                config.getLong("screenshot.max.run.mb") * 1024 * 1024,
+                config.getInt("screenshot.max.width"));
+    }
+
+    /**
+     * Attach screenshot to the running Allure test or fixture, must be called on its thread
+     *
+     * @param base64Png screenshot as returned by the browser
+     * @return false if screenshot was dropped
+     */
+    boolean submit(String name, String base64Png) {
+        if (!lifecycle.getCurrentTestCaseOrStep().isPresent()) {
+            log.debug("No running Allure test for screenshot [" + name + "]");
+            return false;
+        }
+        return enqueue(name, base64Png, () -> lifecycle.prepareAttachment(name, TYPE, EXTENSION));
+    }
+
+    /**
+     * Attach screenshot to a result Allure lifecycle no longer holds, e.g. a fixture which is being stopped
+     *
+     * @return false if screenshot was dropped
+     */
+    boolean submit(WithAttachments result, String name, String base64Png) {
+        return enqueue(name, base64Png, () -> {
+            String source = UUID.randomUUID() + AllureConstants.ATTACHMENT_FILE_SUFFIX + "." + EXTENSION;
+            result.getAttachments().add(new Attachment().setName(name).setType(TYPE).setSource(source));
+            return source;
+        });
+    }
+
+    /**
+     * @param attachment registers the attachment and gives the file name it is written to
+     */
+    private boolean enqueue(String name, String base64Png, Supplier<String> attachment) {
+        long size = base64Png.length() / 4L * 3;
+        if (!queueSlots.tryAcquire()) {
+            return drop(name, "queue is full");
+        }
+        if (remainingBytes.addAndGet(-size) < 0) {
+            remainingBytes.addAndGet(size);
+            queueSlots.release();
+            return drop(name, "run budget of screenshot bytes is spent");
+        }
+        String source = attachment.get();
+        pending.register();
+        executor.execute(() -> {
+            queueSlots.release();
+            try {
+                long actual = write(source, base64Png);
+                remainingBytes.addAndGet(size - actual);
+                writtenBytes.addAndGet(actual);
+                written.incrementAndGet();
+            } catch (IOException | RuntimeException e) {
+                remainingBytes.addAndGet(size);
+                log.warn("Could not write screenshot [" + name + "]: " + e);
+            } finally {
+                pending.arriveAndDeregister();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Wait until queued screenshots are written
+     */
+    void flush(long timeout, TimeUnit unit) {
+        try {
+            pending.awaitAdvanceInterruptibly(pending.arrive(), timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            log.warn(executor.getQueue().size() + " screenshots were not written in " + timeout + " " + unit);
+        }
+        log.info("Screenshots: " + written.get() + " written, " + writtenBytes.get() / 1024 + " KB, "
+                + dropped.get() + " dropped");
+    }
+
+    /**
+     * @return bytes of the written screenshot
+     */
+    private long write(String source, String base64Png) throws IOException {
+        byte[] png = Base64.getMimeDecoder().decode(base64Png);
+        BufferedImage image = maxWidth > 0 ? ImageIO.read(new ByteArrayInputStream(png)) : null;
+        if (image != null && image.getWidth() > maxWidth) {
+            ByteArrayOutputStream scaled = new ByteArrayOutputStream(png.length);
+            ImageIO.write(downscale(image), EXTENSION, scaled);
+            png = scaled.toByteArray();
+        }
+        lifecycle.writeAttachment(source, new ByteArrayInputStream(png));
+        return png.length;
+    }
+
+    private BufferedImage downscale(BufferedImage image) {
+        int height = (int) Math.max(1, Math.round((double) image.getHeight() * maxWidth / image.getWidth()));
+        BufferedImage scaled = new BufferedImage(maxWidth, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, maxWidth, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private boolean drop(String name, String reason) {
+        if (dropped.incrementAndGet() == 1) {
+            log.warn("Screenshot [" + name + "] is dropped: " + reason + ", further drops are logged on debug level");
+        } else {
+            log.debug("Screenshot [" + name + "] is dropped: " + reason);
+        }
+        return false;
+    }
+}
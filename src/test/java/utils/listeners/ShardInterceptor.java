@@ -0,0 +1,28 @@
+package utils.listeners;
+
+import com.onlinerautomation.utils.ShardPlan;
+import com.onlinerautomation.utils.TestIds;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Leaves test methods of this JVM's shard of {@link ShardPlan}, data-provider rows are filtered by the data providers
+ */
+public class ShardInterceptor implements IMethodInterceptor {
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        ShardPlan plan = ShardPlan.current();
+        if (!plan.isSharded()) {
+            return methods;
+        }
+        return methods.stream()
+                .filter(method -> plan.runsMethod(TestIds.of(method.getMethod().getRealClass(),
+                        method.getMethod().getMethodName())))
+                .collect(Collectors.toList());
+    }
+}
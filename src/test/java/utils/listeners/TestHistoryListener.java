@@ -0,0 +1,81 @@
+package utils.listeners;
+
+import com.onlinerautomation.utils.SuiteConfiguration;
+import com.onlinerautomation.utils.TestHistory;
+import com.onlinerautomation.utils.TestIds;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long every test and data-provider row took and whether it failed into {@link TestHistory} file
+ * <code>.test-history/durations.properties</code> (<code>test.history.file</code> of {@link SuiteConfiguration}).
+ * Duration is measured by {@link TestTiming}, skipped tests are not recorded.
+ * <p>
+ * With <code>test.history.output</code> set, runs of this suite only are written there and the history file is just
+ * read, that is how shards of a sharded run leave merging to the launcher.
+ */
+@Slf4j
+public class TestHistoryListener implements IInvokedMethodListener, ISuiteListener {
+    private static final TestHistory thisRun = new TestHistory();
+    private final TestTiming timing = new TestTiming();
+    private static volatile TestHistory previousRuns;
+
+    /**
+     * @return history of the runs before this one, loaded on the first call
+     */
+    static TestHistory previousRuns() {
+        if (previousRuns == null) {
+            synchronized (TestHistoryListener.class) {
+                if (previousRuns == null) {
+                    TestHistory history = new TestHistory();
+                    history.load(historyFile());
+                    previousRuns = history;
+                }
+            }
+        }
+        return previousRuns;
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        timing.beforeInvocation(method);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        TestTiming.Measured test = timing.afterInvocation(method, testResult);
+        if (test != null) {
+            thisRun.record(TestIds.of(testResult.getTestClass().getRealClass(), testResult.getMethod().getMethodName(),
+                    testResult.getParameters()), TimeUnit.NANOSECONDS.toMillis(test.getWallNanos()), test.isFailed());
+        }
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        String output = SuiteConfiguration.get().getProperty("test.history.output");
+        Path file = output == null || output.isEmpty() ? historyFile() : Paths.get(output);
+        TestHistory history = new TestHistory();
+        if (file.equals(historyFile())) {
+            history.addAll(previousRuns());
+        }
+        history.addAll(thisRun);
+        history.save(file);
+        log.info("Test durations saved to " + file.toAbsolutePath());
+    }
+
+    private static Path historyFile() {
+        return Paths.get(SuiteConfiguration.get().getString("test.history.file"));
+    }
+}
@@ -0,0 +1,102 @@
+package utils.listeners;
+
+import com.onlinerautomation.utils.SuiteConfiguration;
+import com.onlinerautomation.utils.TestHistory;
+import com.onlinerautomation.utils.TestIds;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Orders test methods by {@link TestHistory} of previous runs, <code>test.order</code> of {@link SuiteConfiguration}:
+ * <ul>
+ * <li><b>auto</b> (default) - recently failed first, then the longest first when the suite runs in parallel</li>
+ * <li><b>failed-first</b> - the most recently failed first, the rest in suite order</li>
+ * <li><b>longest</b> - the longest first, so the last parallel slots get the short tests</li>
+ * <li><b>suite</b> - order of the suite</li>
+ * </ul>
+ * A method counts as long as all its data-provider rows together and as failed as its most recently failed row.
+ * Methods which never ran count as the longest ones.
+ */
+@Slf4j
+public class TestOrderInterceptor implements IMethodInterceptor {
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        String order = SuiteConfiguration.get().getString("test.order").trim().toLowerCase();
+        boolean parallel = context.getCurrentXmlTest().getParallel().isParallel();
+        List<IMethodInstance> ordered = order(methods, order, parallel, TestHistoryListener.previousRuns());
+        log.info("Test order " + order + (parallel ? " for parallel run" : "") + ", first: "
+                + (ordered.isEmpty() ? "none" : ordered.get(0).getMethod().getQualifiedName()));
+        return ordered;
+    }
+
+    static List<IMethodInstance> order(List<IMethodInstance> methods, String order, boolean parallel,
+                                       TestHistory history) {
+        Comparator<IMethodInstance> comparator;
+        switch (order) {
+            case "suite":
+                return methods;
+            case "failed-first":
+                comparator = failedFirst(methods, history);
+                break;
+            case "longest":
+                comparator = longestFirst(methods, history);
+                break;
+            case "auto":
+                comparator = parallel
+                        ? failedFirst(methods, history).thenComparing(longestFirst(methods, history))
+                        : failedFirst(methods, history);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown test order [" + order
+                        + "], expected auto, failed-first, longest or suite");
+        }
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        // stable sort, ties keep the suite order
+        ordered.sort(comparator);
+        return ordered;
+    }
+
+    private static Comparator<IMethodInstance> failedFirst(List<IMethodInstance> methods, TestHistory history) {
+        Map<ITestNGMethod, Integer> lastFailure = new HashMap<>();
+        for (IMethodInstance method : methods) {
+            String methodId = methodId(method.getMethod());
+            int runsAgo = history.lastFailure(methodId);
+            for (String id : history.ids(methodId)) {
+                int rowRunsAgo = history.lastFailure(id);
+                if (rowRunsAgo >= 0 && (runsAgo < 0 || rowRunsAgo < runsAgo)) {
+                    runsAgo = rowRunsAgo;
+                }
+            }
+            lastFailure.put(method.getMethod(), runsAgo < 0 ? Integer.MAX_VALUE : runsAgo);
+        }
+        return Comparator.comparing(method -> lastFailure.get(method.getMethod()));
+    }
+
+    private static Comparator<IMethodInstance> longestFirst(List<IMethodInstance> methods, TestHistory history) {
+        Map<ITestNGMethod, Long> duration = new HashMap<>();
+        for (IMethodInstance method : methods) {
+            long total = 0;
+            boolean known = false;
+            for (String id : history.ids(methodId(method.getMethod()))) {
+                total += history.estimate(id);
+                known = true;
+            }
+            duration.put(method.getMethod(), known ? total : Long.MAX_VALUE);
+        }
+        return Comparator.comparing((IMethodInstance method) -> duration.get(method.getMethod())).reversed();
+    }
+
+    private static String methodId(ITestNGMethod method) {
+        return TestIds.of(method.getRealClass(), method.getMethodName());
+    }
+}
@@ -0,0 +1,115 @@
+package utils.listeners;
+
+import com.onlinerautomation.utils.TestHistory;
+import com.onlinerautomation.utils.TestIds;
+import org.testng.IMethodInstance;
+import org.testng.ITestNGMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.expectThrows;
+
+public class TestOrderInterceptorTest {
+    private TestHistory history;
+
+    @BeforeMethod
+    public void createHistory() {
+        history = new TestHistory();
+    }
+
+    @Test
+    public void testRecentlyFailedFirst() {
+        history.record(id("testA"), 100, true);
+        history.record(id("testA"), 100);
+        history.record(id("testB") + "[Седан]", 100, true);
+        history.record(id("testC"), 100);
+
+        assertEquals(order("failed-first", false, "testC", "testD", "testA", "testB"),
+                Arrays.asList("testB", "testA", "testC", "testD"));
+    }
+
+    @Test
+    public void testLongestFirstWithRowsTogether() {
+        history.record(id("testA"), 250);
+        history.record(id("testB") + "[Седан]", 200);
+        history.record(id("testB") + "[Универсал]", 100);
+
+        assertEquals(order("longest", false, "testA", "testB", "testC"), Arrays.asList("testC", "testB", "testA"));
+    }
+
+    @Test
+    public void testAutoSortsByDurationOnlyInParallel() {
+        history.record(id("testA"), 100);
+        history.record(id("testB"), 300, true);
+        history.record(id("testC"), 200);
+
+        assertEquals(order("auto", false, "testA", "testC", "testB"), Arrays.asList("testB", "testA", "testC"));
+        assertEquals(order("auto", true, "testA", "testC", "testB"), Arrays.asList("testB", "testC", "testA"));
+    }
+
+    @Test
+    public void testTiesKeepSuiteOrder() {
+        history.record(id("testA"), 100);
+        history.record(id("testB"), 100);
+        history.record(id("testC"), 100);
+
+        assertEquals(order("auto", true, "testC", "testA", "testB"), Arrays.asList("testC", "testA", "testB"));
+    }
+
+    @Test
+    public void testSuiteOrder() {
+        history.record(id("testB"), 100, true);
+
+        assertEquals(order("suite", true, "testA", "testB"), Arrays.asList("testA", "testB"));
+        expectThrows(IllegalArgumentException.class, () -> order("random", true, "testA", "testB"));
+    }
+
+    private List<String> order(String order, boolean parallel, String... methodNames) {
+        List<IMethodInstance> methods = Arrays.stream(methodNames).map(TestOrderInterceptorTest::instance)
+                .collect(Collectors.toList());
+        return TestOrderInterceptor.order(methods, order, parallel, history).stream()
+                .map(method -> method.getMethod().getMethodName())
+                .collect(Collectors.toList());
+    }
+
+    private static String id(String methodName) {
+        return TestIds.of(TestOrderInterceptorTest.class, methodName);
+    }
+
+    private static IMethodInstance instance(String methodName) {
+        ITestNGMethod method = method(methodName);
+        return (IMethodInstance) Proxy.newProxyInstance(IMethodInstance.class.getClassLoader(),
+                new Class<?>[]{IMethodInstance.class}, (proxy, m, args) -> {
+                    if (m.getName().equals("getMethod")) {
+                        return method;
+                    }
+                    throw new UnsupportedOperationException(m.getName());
+                });
+    }
+
+    private static ITestNGMethod method(String methodName) {
+        return (ITestNGMethod) Proxy.newProxyInstance(ITestNGMethod.class.getClassLoader(),
+                new Class<?>[]{ITestNGMethod.class}, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getRealClass":
+                            return TestOrderInterceptorTest.class;
+                        case "getMethodName":
+                        case "getQualifiedName":
+                        case "toString":
+                            return methodName;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(m.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,75 @@
+package utils.listeners;
+
+import lombok.Value;
+import org.testng.IInvokedMethod;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Wall time and memory allocated on the test thread of every test, from its first <code>@BeforeMethod</code>, or the
+ * test method if it has none, to the end of the test method, so session lease and page opening are included while
+ * suite and class fixtures are not. Tests which are skipped, by a failed before method or by themselves, are not
+ * measured.
+ * <p>
+ * Every listener keeps its own timing and passes its invocations to it.
+ */
+final class TestTiming {
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    // nanoTime and allocated bytes at the start of the test running on the thread
+    private final ThreadLocal<long[]> testStart = new ThreadLocal<>();
+
+    void beforeInvocation(IInvokedMethod method) {
+        if (testStart.get() == null && (method.isTestMethod()
+                || method.getTestMethod().isBeforeMethodConfiguration())) {
+            testStart.set(new long[]{System.nanoTime(), allocatedBytes()});
+        }
+    }
+
+    /**
+     * @return the test which has just finished or null if it was skipped or the invocation is not a test
+     */
+    Measured afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.getTestMethod().isBeforeMethodConfiguration() && testResult.getStatus() != ITestResult.SUCCESS) {
+            // the test is skipped without running
+            testStart.remove();
+            return null;
+        } else if (!method.isTestMethod()) {
+            return null;
+        }
+        long[] start = testStart.get();
+        testStart.remove();
+        boolean run = testResult.getStatus() == ITestResult.SUCCESS || testResult.getStatus() == ITestResult.FAILURE;
+        if (start == null || !run || testResult.getThrowable() instanceof SkipException) {
+            return null;
+        }
+        return new Measured(System.nanoTime() - start[0], start[1] < 0 ? -1 : allocatedBytes() - start[1],
+                testResult.getStatus() == ITestResult.FAILURE);
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far or -1 if JVM doesn't count them
+     */
+    private static long allocatedBytes() {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    @Value
+    static class Measured {
+        long wallNanos;
+        /**
+         * -1 if JVM doesn't count allocated memory
+         */
+        long allocatedBytes;
+        boolean failed;
+    }
+}
@@ -0,0 +1,170 @@
+package utils.listeners;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.onlinerautomation.utils.SuiteConfiguration;
+import com.onlinerautomation.utils.WaitRecord;
+import com.onlinerautomation.utils.WaitStats;
+import io.qameta.allure.Allure;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Reports {@link WaitStats}: waits of every test are attached to its Allure result, waits of the run are written to
+ * <code>target/wait-stats</code> (<code>wait.stats.dir</code> of {@link SuiteConfiguration}) when the suite finishes:
+ * <ul>
+ * <li><code>wait-stats.json</code> - run and per test summaries</li>
+ * <li><code>wait-stats.csv</code> - run summary, the longest total first</li>
+ * <li><code>waits.csv</code> - every wait with its test</li>
+ * </ul>
+ * Waits of before methods belong to the test which follows them, waits of after methods only get to the run summary.
+ */
+@Slf4j
+public class WaitStatsListener implements IInvokedMethodListener, ISuiteListener {
+    private static final int TOP_WAITS_LOGGED = 10;
+    private static final Queue<TestWaits> tests = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<Boolean> testFinished = ThreadLocal.withInitial(() -> false);
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        // the waits of after methods of the previous test
+        if (testFinished.get() && !method.getTestMethod().isAfterMethodConfiguration()) {
+            WaitStats.drain();
+            testFinished.set(false);
+        }
+    }
+
+    /**
+     * Attach before Allure listener finishes the test result, it is done in onTestSuccess/onTestFailure which follow
+     */
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod() || !WaitStats.isEnabled()) {
+            return;
+        }
+        testFinished.set(true);
+        List<WaitRecord> records = WaitStats.drain();
+        if (records.isEmpty()) {
+            return;
+        }
+        TestWaits testWaits = new TestWaits(testResult.getTestClass().getRealClass().getSimpleName() + "."
+                + testResult.getMethod().getMethodName(), Arrays.toString(testResult.getParameters()), records);
+        tests.add(testWaits);
+        Allure.addAttachment("Waits", "text/csv", summaryCsv(WaitStats.summarize(records)), ".csv");
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        List<WaitStats.Summary> run = WaitStats.getRunSummary();
+        if (run.isEmpty()) {
+            return;
+        }
+        log.info("Top waits of the run:\n" + run.stream()
+                .limit(TOP_WAITS_LOGGED)
+                .map(summary -> summary.getTotalMs() + "ms in " + summary.getWaits() + " waits, "
+                        + summary.getTimeouts() + " timeouts - " + summary.getKey() + " from " + summary.getCaller())
+                .collect(Collectors.joining("\n")));
+        Path dir = Paths.get(SuiteConfiguration.get().getString("wait.stats.dir"));
+        try {
+            Files.createDirectories(dir);
+            Files.write(dir.resolve("wait-stats.csv"), summaryCsv(run).getBytes(StandardCharsets.UTF_8));
+            Files.write(dir.resolve("waits.csv"), waitsCsv().getBytes(StandardCharsets.UTF_8));
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("run", run);
+            json.put("tests", tests.stream().map(TestWaits::toSummary).collect(Collectors.toList()));
+            Gson gson = new GsonBuilder().setPrettyPrinting().create();
+            try (Writer writer = Files.newBufferedWriter(dir.resolve("wait-stats.json"), StandardCharsets.UTF_8)) {
+                gson.toJson(json, writer);
+            }
+            log.info("Wait statistics written to " + dir.toAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write wait statistics to " + dir, e);
+        }
+    }
+
+    private static String summaryCsv(List<WaitStats.Summary> summaries) {
+        StringBuilder csv = new StringBuilder("key,caller,waits,total ms,max ms,polls,stale ignored,no such ignored,"
+                + "timeouts,errors\n");
+        for (WaitStats.Summary summary : summaries) {
+            csv.append(csv(summary.getKey())).append(',')
+                    .append(csv(summary.getCaller())).append(',')
+                    .append(summary.getWaits()).append(',')
+                    .append(summary.getTotalMs()).append(',')
+                    .append(summary.getMaxMs()).append(',')
+                    .append(summary.getPolls()).append(',')
+                    .append(summary.getStaleIgnored()).append(',')
+                    .append(summary.getNoSuchIgnored()).append(',')
+                    .append(summary.getTimeouts()).append(',')
+                    .append(summary.getErrors()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String waitsCsv() {
+        StringBuilder csv = new StringBuilder("test,parameters,key,caller,engine,elapsed ms,polls,stale ignored,"
+                + "no such ignored,outcome\n");
+        for (TestWaits test : tests) {
+            for (WaitRecord record : test.records) {
+                csv.append(csv(test.test)).append(',')
+                        .append(csv(test.parameters)).append(',')
+                        .append(csv(record.getKey())).append(',')
+                        .append(csv(record.getCaller())).append(',')
+                        .append(record.getEngine()).append(',')
+                        .append(record.getElapsedMs()).append(',')
+                        .append(record.getPolls()).append(',')
+                        .append(record.getStaleIgnored()).append(',')
+                        .append(record.getNoSuchIgnored()).append(',')
+                        .append(record.getOutcome()).append('\n');
+            }
+        }
+        return csv.toString();
+    }
+
+    private static String csv(String value) {
+        return "\"" + String.valueOf(value).replace("\"", "\"\"") + "\"";
+    }
+
+    private static class TestWaits {
+        private final String test;
+        private final String parameters;
+        private final List<WaitRecord> records;
+
+        TestWaits(String test, String parameters, List<WaitRecord> records) {
+            this.test = test;
+            this.parameters = parameters;
+            this.records = records;
+        }
+
+        Map<String, Object> toSummary() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("test", test);
+            summary.put("parameters", parameters);
+            summary.put("totalMs", records.stream().mapToLong(WaitRecord::getElapsedMs).sum());
+            summary.put("waits", WaitStats.summarize(records));
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package utils.sharding;
+
+import com.onlinerautomation.utils.ShardPlan;
+import com.onlinerautomation.utils.SuiteConfiguration;
+import com.onlinerautomation.utils.TestHistory;
+import com.onlinerautomation.utils.TestIds;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.testng.xml.Parser;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import utils.fixtures.FixtureServer;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the suite split between <code>shard.count</code> JVMs on this machine:
+ * <ol>
+ * <li>lists test methods and data-provider rows of <code>shard.suite</code></li>
+ * <li>balances them by durations of previous runs from <code>test.history.file</code> into
+ * <code>target/shards/plan.properties</code> (<code>shard.dir</code>), tests which never ran count as a typical one</li>
+ * <li>starts TestNG with the suite in every shard JVM and waits for all of them, shards write into the same Allure
+ * results directory, their logs and other reports go to <code>target/shards/shard-N</code></li>
+ * <li>merges durations recorded by the shards into the history and logs planned and actual time per shard</li>
+ * </ol>
+ * Shard JVMs get classpath and <code>shard.javaagent</code> of the launcher, and the settings below given to the
+ * launcher, the <code>shards</code> profile passes them from <code>-D</code> of <code>mvn</code>. Local fixture server
+ * port is shifted per shard. Like surefire with <code>testFailureIgnore</code>, failed tests don't fail the launcher, a shard JVM which
+ * crashed does.
+ */
+@Slf4j
+public class ShardLauncher {
+    private static final long UNKNOWN_TEST_MS = TimeUnit.SECONDS.toMillis(20);
+    // TestNG exit code is a mask of failed (1), skipped (2) and no tests (8)
+    private static final int TESTNG_RESULT_CODES = 0b1111;
+    private static final String[] PASSED_PROPERTIES = {"application.properties", "driver.tier", "site.url",
+            "await.engine", "await.poll.strategy", "elements.wait.engine", "page.binding", "session.pool.max.size",
+            "proxy.enabled", "session.tabs", "element.cache", "command.trace"};
+
+    public static void main(String[] args) throws Exception {
+        SuiteConfiguration config = SuiteConfiguration.get();
+        int count = config.getInt("shard.count");
+        Path suite = Paths.get(config.getString("shard.suite"));
+        Path dir = Paths.get(config.getString("shard.dir"));
+        Path historyFile = Paths.get(config.getString("test.history.file"));
+
+        List<String> tests = listTests(suite);
+        TestHistory history = new TestHistory();
+        history.load(historyFile);
+        long typical = history.typicalEstimate(tests, UNKNOWN_TEST_MS);
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        for (String test : tests) {
+            long estimate = history.estimate(test);
+            estimates.put(test, estimate < 0 ? typical : estimate);
+        }
+        ShardPlan plan = ShardPlan.balance(estimates, count);
+        deleteRecursively(dir);
+        Path planFile = dir.resolve("plan.properties");
+        plan.save(planFile);
+        log.info(tests.size() + " tests of " + suite + " planned into " + count + " shards, "
+                + (history.isEmpty() ? "no test history yet" : "unknown tests count as " + typical + "ms"));
+
+        List<Process> processes = new ArrayList<>();
+        long[] started = new long[count];
+        for (int shard = 0; shard < count; shard++) {
+            Path shardDir = dir.resolve("shard-" + shard);
+            Files.createDirectories(shardDir);
+            started[shard] = System.nanoTime();
+            processes.add(new ProcessBuilder(command(config, suite, planFile, shard, shardDir))
+                    .redirectErrorStream(true)
+                    .redirectOutput(shardDir.resolve("output.log").toFile())
+                    .start());
+        }
+        int exitCode = 0;
+        StringBuilder report = new StringBuilder("Shards, planned test time vs wall time:");
+        for (int shard = 0; shard < count; shard++) {
+            int shardExit = processes.get(shard).waitFor();
+            long actual = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started[shard]);
+            report.append("\nshard ").append(shard).append(": ").append(plan.getLoad(shard) / 1000).append("s vs ")
+                    .append(actual).append("s").append(shardExit == 0 ? "" : ", exit code " + shardExit);
+            if ((shardExit & ~TESTNG_RESULT_CODES) != 0) {
+                exitCode = shardExit;
+            }
+            // shards write only runs of this suite, they go after the runs loaded from the history file
+            history.load(dir.resolve("shard-" + shard).resolve("durations.properties"));
+        }
+        history.save(historyFile);
+        log.info(report.toString());
+        System.exit(exitCode);
+    }
+
+    private static List<String> command(SuiteConfiguration config, Path suite, Path planFile, int shard, Path shardDir) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        String javaagent = config.getProperty("shard.javaagent");
+        if (javaagent != null && !javaagent.isEmpty()) {
+            command.add("-javaagent:" + javaagent);
+        }
+        command.add("-Dfile.encoding=UTF-8");
+        for (String name : PASSED_PROPERTIES) {
+            String value = passedProperty(name);
+            if (value != null) {
+                command.add("-D" + name + "=" + value);
+            }
+        }
+        command.add("-Dallure.results.directory=" + Paths.get(System.getProperty("allure.results.directory",
+                "target/allure-results")).toAbsolutePath());
+        command.add("-Dshard.plan=" + planFile.toAbsolutePath());
+        command.add("-Dshard.index=" + shard);
+        command.add("-Dtest.history.file=" + Paths.get(config.getString("test.history.file")).toAbsolutePath());
+        command.add("-Dtest.history.output=" + shardDir.resolve("durations.properties").toAbsolutePath());
+        command.add("-Dwait.stats.dir=" + shardDir.resolve("wait-stats").toAbsolutePath());
+        command.add("-Dcommand.trace.dir=" + shardDir.resolve("command-trace").toAbsolutePath());
+        command.add("-Ddriver.tier.report.dir=" + shardDir.resolve("driver-tiers").toAbsolutePath());
+        command.add("-Dproxy.report.dir=" + shardDir.resolve("proxy").toAbsolutePath());
+        String siteUrl = config.getProperty("site.url");
+        if (siteUrl != null && FixtureServer.isLocal(siteUrl)) {
+            int port = FixtureServer.portOf(siteUrl);
+            command.add("-Dsite.url=" + siteUrl.replaceFirst(":" + port, ":" + (port + shard)));
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("org.testng.TestNG");
+        command.add("-d");
+        command.add(shardDir.resolve("testng").toAbsolutePath().toString());
+        command.add(suite.toAbsolutePath().toString());
+        return command;
+    }
+
+    /**
+     * @return system property of the launcher unless Maven left it as <code>${...}</code> because it was not given
+     */
+    private static String passedProperty(String name) {
+        String value = System.getProperty(name);
+        return value == null || value.startsWith("${") && value.endsWith("}") ? null : value;
+    }
+
+    /**
+     * Test methods without data provider and every row of those with one, in the order of the suite
+     */
+    static List<String> listTests(Path suite) throws Exception {
+        Set<String> tests = new LinkedHashSet<>();
+        Collection<XmlSuite> suites = new Parser(suite.toString()).parse();
+        for (XmlSuite xmlSuite : suites) {
+            for (XmlTest xmlTest : xmlSuite.getTests()) {
+                for (XmlClass xmlClass : xmlTest.getXmlClasses()) {
+                    Class<?> testClass = xmlClass.getSupportClass();
+                    for (Method method : testClass.getMethods()) {
+                        Test test = method.getAnnotation(Test.class);
+                        if (test == null || !test.enabled()) {
+                            continue;
+                        }
+                        if (test.dataProvider().isEmpty()) {
+                            tests.add(TestIds.of(testClass, method.getName()));
+                        } else {
+                            for (Object[] row : rows(testClass, method, test)) {
+                                tests.add(TestIds.of(testClass, method.getName(), row));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(tests);
+    }
+
+    private static List<Object[]> rows(Class<?> testClass, Method testMethod, Test test) throws Exception {
+        Class<?> providerClass = test.dataProviderClass() == Object.class ? testClass : test.dataProviderClass();
+        Method provider = Stream.of(providerClass.getMethods())
+                .filter(method -> {
+                    DataProvider dataProvider = method.getAnnotation(DataProvider.class);
+                    return dataProvider != null && test.dataProvider().equals(dataProvider.name().isEmpty()
+                            ? method.getName() : dataProvider.name());
+                })
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No data provider [" + test.dataProvider() + "] in "
+                        + providerClass.getName()));
+        if (!Modifier.isStatic(provider.getModifiers())) {
+            throw new IllegalStateException("Data provider " + provider + " must be static to plan shards");
+        }
+        Object[] arguments = Stream.of(provider.getParameterTypes())
+                .map(type -> type == Method.class ? testMethod : null)
+                .toArray();
+        Object rows = provider.invoke(null, arguments);
+        List<Object[]> result = new ArrayList<>();
+        if (rows instanceof Iterator) {
+            ((Iterator<?>) rows).forEachRemaining(row -> result.add((Object[]) row));
+        } else {
+            for (Object row : (Object[]) rows) {
+                result.add((Object[]) row);
+            }
+        }
+        return result;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted((a, b) -> b.compareTo(a)).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+}
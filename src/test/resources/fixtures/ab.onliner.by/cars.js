@@ -0,0 +1,37 @@
+/*
+ * Announcements of the recorded ab.onliner.by snapshot, shared by the listing and the announcement page
+ * so preview and announcement data always agree.
+ */
+var CARS = [
+    {id: 2710431, title: 'Volkswagen Passat B5', year: '2001', mileage: '310 000 км', price: 1000, body: 'sedan', fuel: 'petrol', transmission: 'manual',
+        description: 'Продаю из-за покупки другого автомобиля. Машина на ходу, зимняя резина в подарок.'},
+    {id: 2710432, title: 'Opel Astra F', year: '1995', mileage: '380 000 км', price: 1000, body: 'universal', fuel: 'diesel', transmission: 'manual',
+        description: 'Требует вложений по кузову, двигатель и коробка в хорошем состоянии.'},
+    {id: 2710433, title: 'Audi 80 B4', year: '1993', mileage: '420 000 км', price: 2000, body: 'sedan', fuel: 'gas', transmission: 'manual',
+        description: 'Газ-бензин, техосмотр пройден, торг у капота.'},
+    {id: 2710434, title: 'Renault Megane II', year: '2004', mileage: '250 000 км', price: 2000, body: 'hatchback', fuel: 'petrol', transmission: 'automatic',
+        description: 'Обслуживалась у официального дилера, сервисная книжка.'},
+    {id: 2710435, title: 'Ford Galaxy', year: '2000', mileage: '330 000 км', price: 3500, body: 'minivan', fuel: 'diesel', transmission: 'manual',
+        description: 'Семь мест, фаркоп, новый ремень ГРМ.'},
+    {id: 2710436, title: 'Toyota RAV4', year: '2008', mileage: '190 000 км', price: 11500, body: 'suv', fuel: 'petrol', transmission: 'automatic',
+        description: 'Полный привод, климат-контроль, без окраса.'},
+    {id: 2710437, title: 'Toyota Prius', year: '2012', mileage: '160 000 км', price: 9800, body: 'hatchback', fuel: 'hybrid', transmission: 'automatic',
+        description: 'Экономичный гибрид, расход 4.5 литра.'},
+    {id: 2710438, title: 'Nissan Leaf', year: '2014', mileage: '90 000 км', price: 8700, body: 'hatchback', fuel: 'electric', transmission: 'automatic',
+        description: 'Батарея 11 делений из 12, зарядка в комплекте.'},
+    {id: 2710439, title: 'Mercedes-Benz CLK', year: '2003', mileage: '210 000 км', price: 7300, body: 'coupe', fuel: 'petrol', transmission: 'automatic',
+        description: 'Кожаный салон, ксенон, один владелец в Беларуси.'},
+    {id: 2710440, title: 'Volkswagen Transporter T5', year: '2006', mileage: '400 000 км', price: 8900, body: 'bus', fuel: 'diesel', transmission: 'manual',
+        description: 'Пассажир 8+1, родной пробег.'}
+];
+
+var BYN_RATE = 1.99;
+
+function findCar(id) {
+    for (var i = 0; i < CARS.length; i++) {
+        if (CARS[i].id === id) {
+            return CARS[i];
+        }
+    }
+    return null;
+}